@@ -2,12 +2,18 @@ package com.siemens.internship;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class InternshipApplication {
 
+	// Enough for every startup step of this application; later steps are dropped, not blocked
+	private static final int STARTUP_STEP_CAPACITY = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(InternshipApplication.class, args);
+		SpringApplication application = new SpringApplication(InternshipApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 
 }
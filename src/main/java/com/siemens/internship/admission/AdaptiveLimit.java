@@ -0,0 +1,90 @@
+package com.siemens.internship.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows observed latency, in the style of a gradient limiter.
+ * A slow moving average of the response time serves as the no-load baseline; each sample shrinks the limit
+ * by the ratio baseline / sample once latency rises past the tolerance, and otherwise grows it by the square
+ * root of the limit. Failed requests shrink it multiplicatively. Samples taken while less than half the limit
+ * was in use say nothing about capacity and only update the baseline.
+ */
+public class AdaptiveLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_WINDOW = 600;
+    private static final double TOLERANCE = 1.5;
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+    private double estimatedLimit;
+    private double baselineNanos;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    boolean tryAcquire() {
+        while (true) {
+            int current = this.inFlight.get();
+            if (current >= this.limit) {
+                this.rejected.increment();
+                return false;
+            }
+            if (this.inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void release(long rttNanos, boolean dropped) {
+        int inFlightBeforeRelease = this.inFlight.getAndDecrement();
+        update(Math.max(1L, rttNanos), inFlightBeforeRelease, dropped);
+    }
+
+    int limit() {
+        return this.limit;
+    }
+
+    Snapshot snapshot() {
+        return new Snapshot(this.limit, this.inFlight.get(), this.rejected.sum());
+    }
+
+    private synchronized void update(long rttNanos, int inFlight, boolean dropped) {
+        if (this.baselineNanos == 0) {
+            this.baselineNanos = rttNanos;
+        } else {
+            this.baselineNanos += (rttNanos - this.baselineNanos) / BASELINE_WINDOW;
+            if (this.baselineNanos > 2.0 * rttNanos) {
+                // Latency dropped well below the baseline, let it catch up faster than the window allows.
+                this.baselineNanos *= 0.95;
+            }
+        }
+
+        double next;
+        if (dropped) {
+            next = this.estimatedLimit * BACKOFF_RATIO;
+        } else if (inFlight < this.estimatedLimit / 2) {
+            return;
+        } else {
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * this.baselineNanos / rttNanos));
+            next = this.estimatedLimit * gradient + Math.sqrt(this.estimatedLimit);
+        }
+        next = this.estimatedLimit * (1 - SMOOTHING) + next * SMOOTHING;
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, next));
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    public record Snapshot(int limit, int inFlight, long rejected) {
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.siemens.internship.admission;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Admission control for the items API. Each endpoint class has its own {@link AdaptiveLimit} on the number of
+ * requests in flight; a request over the limit is turned away at once with 503 and Retry-After instead of
+ * waiting for a Tomcat thread or a database connection.
+ * The change stream is not limited, its requests stay open for as long as the client listens.
+ */
+@Component
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final String ITEMS_PATH = "/api/items";
+    private static final String PROCESS_PATH = ITEMS_PATH + "/process";
+    private static final String CHANGES_PATH = ITEMS_PATH + "/changes";
+    private static final String CANCEL_SUFFIX = "/cancel";
+    private static final int MIN_LIMIT = 1;
+
+    public enum EndpointClass {
+        READS,
+        WRITES,
+        PROCESS
+    }
+
+    private final boolean enabled;
+    private final int retryAfterSeconds;
+    private final Map<EndpointClass, AdaptiveLimit> limits = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionFilter(@Value("${items.admission.enabled:true}") boolean enabled,
+            @Value("${items.admission.reads.initial-limit:20}") int readsInitialLimit,
+            @Value("${items.admission.reads.max-limit:200}") int readsMaxLimit,
+            @Value("${items.admission.writes.initial-limit:10}") int writesInitialLimit,
+            @Value("${items.admission.writes.max-limit:100}") int writesMaxLimit,
+            @Value("${items.admission.process.initial-limit:2}") int processInitialLimit,
+            @Value("${items.admission.process.max-limit:4}") int processMaxLimit,
+            @Value("${items.admission.retry-after-seconds:1}") int retryAfterSeconds) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.limits.put(EndpointClass.READS, new AdaptiveLimit(readsInitialLimit, MIN_LIMIT, readsMaxLimit));
+        this.limits.put(EndpointClass.WRITES, new AdaptiveLimit(writesInitialLimit, MIN_LIMIT, writesMaxLimit));
+        this.limits.put(EndpointClass.PROCESS, new AdaptiveLimit(processInitialLimit, MIN_LIMIT, processMaxLimit));
+    }
+
+    public Map<EndpointClass, AdaptiveLimit.Snapshot> snapshot() {
+        Map<EndpointClass, AdaptiveLimit.Snapshot> snapshot = new LinkedHashMap<>();
+        this.limits.forEach((endpointClass, limit) -> snapshot.put(endpointClass, limit.snapshot()));
+        return snapshot;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !this.enabled || classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        AdaptiveLimit limit = this.limits.get(endpointClass);
+        if (!limit.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(this.retryAfterSeconds));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "Too many concurrent " + endpointClass.name().toLowerCase() + " requests");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            chain.doFilter(request, response);
+            dropped = response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        } finally {
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.equals(ITEMS_PATH) && !path.startsWith(ITEMS_PATH + "/") || path.startsWith(CHANGES_PATH)) {
+            return null;
+        }
+        // Cancelling is a write: it must get through while the runs it stops fill the process limit.
+        if (path.startsWith(PROCESS_PATH) && !path.endsWith(CANCEL_SUFFIX)) {
+            return EndpointClass.PROCESS;
+        }
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)
+                ? EndpointClass.READS
+                : EndpointClass.WRITES;
+    }
+
+}
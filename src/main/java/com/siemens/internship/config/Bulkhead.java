@@ -0,0 +1,28 @@
+package com.siemens.internship.config;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Partitions of the application's resources. A thread belongs to the interactive bulkhead unless it was
+ * created by another bulkhead's {@link #threadFactory}; {@link BulkheadDataSource} hands out connections
+ * from the pool of the calling thread's bulkhead.
+ */
+public enum Bulkhead {
+    INTERACTIVE,
+    PROCESSING;
+
+    private static final ThreadLocal<Bulkhead> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static Bulkhead current() {
+        return CURRENT.get();
+    }
+
+    public ThreadFactory threadFactory(String namePrefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return runnable -> new Thread(() -> {
+            CURRENT.set(this);
+            runnable.run();
+        }, namePrefix + threads.incrementAndGet());
+    }
+}
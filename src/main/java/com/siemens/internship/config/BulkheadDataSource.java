@@ -0,0 +1,57 @@
+package com.siemens.internship.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import com.siemens.internship.models.Saturation;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Routes each connection request to the pool of the calling thread's {@link Bulkhead}, so a processing run
+ * can use up its own pool without taking connections from interactive requests.
+ */
+public class BulkheadDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final HikariDataSource interactive;
+    private final HikariDataSource processing;
+
+    public BulkheadDataSource(HikariDataSource interactive, HikariDataSource processing) {
+        this.interactive = interactive;
+        this.processing = processing;
+        setTargetDataSources(Map.of(Bulkhead.INTERACTIVE, interactive, Bulkhead.PROCESSING, processing));
+        setDefaultTargetDataSource(interactive);
+        afterPropertiesSet();
+    }
+
+    public Map<String, Saturation> saturation() {
+        Map<String, Saturation> saturation = new LinkedHashMap<>();
+        saturation.put("interactive-connections", saturation(this.interactive));
+        saturation.put("processing-connections", saturation(this.processing));
+        return saturation;
+    }
+
+    @Override
+    public void close() {
+        this.interactive.close();
+        this.processing.close();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Bulkhead.current();
+    }
+
+    private static Saturation saturation(HikariDataSource pool) {
+        // The pool starts with its first connection request.
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        if (bean == null) {
+            return new Saturation(pool.getMaximumPoolSize(), 0, 0);
+        }
+        return new Saturation(pool.getMaximumPoolSize(), bean.getActiveConnections(),
+                bean.getThreadsAwaitingConnection());
+    }
+
+}
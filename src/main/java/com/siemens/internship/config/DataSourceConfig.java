@@ -0,0 +1,51 @@
+package com.siemens.internship.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replaces the single connection pool with one pool per {@link Bulkhead}, both on the configured
+ * {@code spring.datasource} connection. Set {@code items.bulkheads.enabled=false} to go back to Spring Boot's pool.
+ *
+ * Both pools take the {@code spring.datasource.hikari.*} settings, except pool name and maximum pool size,
+ * which are set per bulkhead with {@code items.bulkheads.<bulkhead>.max-connections}, and the processing pool's
+ * connection timeout. The processing pool defaults to one connection per processing worker, so workers never
+ * wait on each other for a connection; no other thread uses it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "items.bulkheads.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceConfig {
+
+    private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+
+    @Bean
+    public BulkheadDataSource dataSource(DataSourceProperties properties, Environment environment,
+            ProcessingProperties processingProperties,
+            @Value("${items.bulkheads.interactive.max-connections:10}") int interactiveConnections,
+            @Value("${items.bulkheads.processing.max-connections:0}") int processingConnections,
+            @Value("${items.bulkheads.processing.connection-timeout-ms:30000}") long processingConnectionTimeout) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource processing = pool(properties, binder, "processing",
+                processingConnections > 0 ? processingConnections : processingProperties.threads());
+        processing.setConnectionTimeout(processingConnectionTimeout);
+        return new BulkheadDataSource(pool(properties, binder, "interactive", interactiveConnections), processing);
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String name,
+            int maxConnections) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(maxConnections);
+        return pool;
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.siemens.internship.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ProcessingProperties.class)
+public class ProcessingConfig {
+}
@@ -0,0 +1,60 @@
+package com.siemens.internship.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the background item processing run.
+ *
+ * @param threads        size of the processing thread pool
+ * @param timeout        time after which a run stops and reports what it has so far
+ * @param itemTimeout    time a single item, retries included, may take before it is interrupted and reported as failed
+ * @param retry          retry policy for transient database errors
+ * @param circuitBreaker circuit breaker around the database calls of the processing
+ * @param queue          priority queue that feeds the processing pool
+ */
+@ConfigurationProperties(prefix = "items.processing")
+public record ProcessingProperties(
+        @DefaultValue("10") int threads,
+        @DefaultValue("60s") Duration timeout,
+        @DefaultValue("5s") Duration itemTimeout,
+        @DefaultValue Retry retry,
+        @DefaultValue CircuitBreaker circuitBreaker,
+        @DefaultValue Queue queue) {
+
+    /**
+     * @param maxAttempts    attempts per item, the first one included
+     * @param initialBackoff upper bound of the randomized wait before the first retry, doubled on every retry
+     * @param maxBackoff     cap for the wait between two attempts
+     */
+    public record Retry(
+            @DefaultValue("3") int maxAttempts,
+            @DefaultValue("100ms") Duration initialBackoff,
+            @DefaultValue("2s") Duration maxBackoff) {
+    }
+
+    /**
+     * @param window        number of recent database outcomes the failure rate is computed over
+     * @param minimumCalls  outcomes needed in the window before the breaker may open
+     * @param failureRate   failure rate, between 0 and 1, at which the breaker opens
+     * @param openDuration  time the breaker stays open before a single trial call is let through
+     */
+    public record CircuitBreaker(
+            @DefaultValue("20") int window,
+            @DefaultValue("10") int minimumCalls,
+            @DefaultValue("0.5") double failureRate,
+            @DefaultValue("10s") Duration openDuration) {
+    }
+
+    /**
+     * @param capacity      items that may wait for a processing thread, over all runs
+     * @param agingInterval waiting time after which a queued item counts as one priority level higher
+     */
+    public record Queue(
+            @DefaultValue("10000") int capacity,
+            @DefaultValue("1s") Duration agingInterval) {
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.siemens.internship.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.siemens.internship.controllers.ItemController;
+import com.siemens.internship.repositories.IItemRepository;
+import com.siemens.internship.services.IItemService;
+import com.siemens.internship.services.ItemJournal;
+
+@Configuration
+public class StartupConfig {
+
+    private static final String IN_MEMORY_H2_PREFIX = "jdbc:h2:mem:";
+
+    /**
+     * Beans on the request path stay eager when the fast-start profile turns on lazy initialization,
+     * otherwise the first request would pay for creating them.
+     * The journal has to replay before requests are served.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter hotPathBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ItemController.class, IItemService.class,
+                IItemRepository.class, ItemJournal.class);
+    }
+
+    /**
+     * The fast-start profile creates the schema instead of diffing it, which drops every table first. That is only
+     * safe on a private in-memory database, so startup fails if the schema would be created anywhere else.
+     */
+    @Bean
+    static HibernatePropertiesCustomizer schemaCreationGuard(DataSourceProperties dataSourceProperties) {
+        return properties -> {
+            Object action = properties.get(AvailableSettings.HBM2DDL_AUTO);
+            String url = dataSourceProperties.determineUrl();
+            if (("create".equals(action) || "create-drop".equals(action))
+                    && (url == null || !url.startsWith(IN_MEMORY_H2_PREFIX))) {
+                throw new IllegalStateException("Refusing ddl-auto=" + action + " on " + url
+                        + ", it would drop the tables of a database that is not in-memory");
+            }
+        };
+    }
+
+}
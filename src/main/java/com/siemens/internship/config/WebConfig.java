@@ -0,0 +1,25 @@
+package com.siemens.internship.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.siemens.internship.diagnostics.HibernateStatisticsInterceptor;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<HibernateStatisticsInterceptor> statisticsInterceptor;
+
+    public WebConfig(ObjectProvider<HibernateStatisticsInterceptor> statisticsInterceptor) {
+        this.statisticsInterceptor = statisticsInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        this.statisticsInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor)
+                .addPathPatterns("/api/items/**"));
+    }
+
+}
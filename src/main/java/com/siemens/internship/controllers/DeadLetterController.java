@@ -0,0 +1,48 @@
+package com.siemens.internship.controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.siemens.internship.exceptions.ServiceException;
+import com.siemens.internship.exceptions.SourceNotFoundException;
+import com.siemens.internship.models.DeadLetter;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.services.IDeadLetterService;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/items/dead-letters")
+public class DeadLetterController implements IDeadLetterController {
+
+    private final IDeadLetterService deadLetterService;
+
+    public DeadLetterController(IDeadLetterService deadLetterService) {
+        this.deadLetterService = deadLetterService;
+    }
+
+    @Override
+    @GetMapping
+    public ResponseEntity<List<DeadLetter>> getAllDeadLetters() {
+        try {
+            return ResponseEntity.ok(this.deadLetterService.findAll());
+        } catch (ServiceException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    @Override
+    @PostMapping("/{id}/replay")
+    public ResponseEntity<Item> replayDeadLetter(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(this.deadLetterService.replay(id));
+        } catch (SourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (ServiceException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error replaying dead letter", e);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.siemens.internship.controllers;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.siemens.internship.admission.AdaptiveLimit;
+import com.siemens.internship.admission.AdmissionFilter;
+import com.siemens.internship.config.BulkheadDataSource;
+import com.siemens.internship.diagnostics.EndpointStatistics;
+import com.siemens.internship.diagnostics.HibernateStatisticsInterceptor;
+import com.siemens.internship.models.Saturation;
+import com.siemens.internship.services.ItemProcessor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/diagnostics")
+public class DiagnosticsController {
+
+    private final HibernateStatisticsInterceptor statisticsInterceptor;
+    private final AdmissionFilter admissionFilter;
+    private final ItemProcessor itemProcessor;
+    private final ObjectProvider<BulkheadDataSource> dataSource;
+
+    public DiagnosticsController(HibernateStatisticsInterceptor statisticsInterceptor,
+            AdmissionFilter admissionFilter, ItemProcessor itemProcessor,
+            ObjectProvider<BulkheadDataSource> dataSource) {
+        this.statisticsInterceptor = statisticsInterceptor;
+        this.admissionFilter = admissionFilter;
+        this.itemProcessor = itemProcessor;
+        this.dataSource = dataSource;
+    }
+
+    @GetMapping("/hibernate")
+    public ResponseEntity<Map<String, EndpointStatistics.Snapshot>> getHibernateStatistics() {
+        return ResponseEntity.ok(this.statisticsInterceptor.snapshot());
+    }
+
+    @DeleteMapping("/hibernate")
+    public ResponseEntity<Void> resetHibernateStatistics() {
+        this.statisticsInterceptor.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/admission")
+    public ResponseEntity<Map<AdmissionFilter.EndpointClass, AdaptiveLimit.Snapshot>> getAdmissionLimits() {
+        return ResponseEntity.ok(this.admissionFilter.snapshot());
+    }
+
+    @GetMapping("/bulkheads")
+    public ResponseEntity<Map<String, Saturation>> getBulkheadSaturation() {
+        Map<String, Saturation> saturation = new LinkedHashMap<>();
+        this.dataSource.ifAvailable(dataSource -> saturation.putAll(dataSource.saturation()));
+        saturation.put("processing-executor", this.itemProcessor.saturation());
+        return ResponseEntity.ok(saturation);
+    }
+
+}
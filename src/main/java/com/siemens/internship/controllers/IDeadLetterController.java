@@ -0,0 +1,16 @@
+package com.siemens.internship.controllers;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+
+import com.siemens.internship.models.DeadLetter;
+import com.siemens.internship.models.Item;
+
+public interface IDeadLetterController {
+
+    ResponseEntity<List<DeadLetter>> getAllDeadLetters();
+
+    ResponseEntity<Item> replayDeadLetter(Long id);
+
+}
@@ -4,21 +4,30 @@ import java.util.List;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ProcessingResult;
+import com.siemens.internship.models.StatusUpdate;
 
 public interface IItemController {
 
-    ResponseEntity<List<Item>> getAllItems();
+    ResponseEntity<List<Item>> getAllItems(String ifNoneMatch);
 
-    ResponseEntity<Item> createItem(Item item, BindingResult result);
+    ResponseEntity<Item> createItem(Item item, BindingResult result, String idempotencyKey);
 
-    ResponseEntity<Item> getItemById(Long id);
+    ResponseEntity<Item> getItemById(Long id, String ifNoneMatch);
 
     ResponseEntity<Item> updateItem(Long id, Item item);
 
     ResponseEntity<Void> deleteItem(Long id);
 
-    ResponseEntity<List<Item>> processItems();
+    ResponseEntity<Item> updateStatus(Long id, StatusUpdate update);
+
+    ResponseEntity<ProcessingResult> processItems(Integer minPriority, String runId);
+
+    ResponseEntity<Void> cancelProcessing(String runId);
+
+    SseEmitter streamChanges();
 
 }
\ No newline at end of file
@@ -1,19 +1,30 @@
 package com.siemens.internship.controllers;
 
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import com.siemens.internship.exceptions.IdempotencyConflictException;
 import com.siemens.internship.exceptions.ServiceException;
 import com.siemens.internship.exceptions.SourceNotFoundException;
 import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ProcessingResult;
+import com.siemens.internship.models.StatusUpdate;
 import com.siemens.internship.services.IItemService;
+import com.siemens.internship.services.IdempotencyStore;
+import com.siemens.internship.services.ItemChangeStream;
+import com.siemens.internship.services.ItemETags;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletionException;
 
 @Validated
@@ -21,18 +32,36 @@ import java.util.concurrent.CompletionException;
 @RequestMapping("/api/items")
 public class ItemController implements IItemController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    // Chosen by the client to be able to cancel its run while it is in progress, generated otherwise.
+    static final String PROCESSING_RUN_HEADER = "Processing-Run-Id";
+
     private final IItemService itemService;
+    private final ItemChangeStream changeStream;
+    private final IdempotencyStore idempotencyStore;
+    private final ItemETags eTags;
 
-    public ItemController(IItemService itemService) {
+    public ItemController(IItemService itemService, ItemChangeStream changeStream,
+            IdempotencyStore idempotencyStore, ItemETags eTags) {
         this.itemService = itemService;
+        this.changeStream = changeStream;
+        this.idempotencyStore = idempotencyStore;
+        this.eTags = eTags;
     }
 
     @Override
     @GetMapping
-    public ResponseEntity<List<Item>> getAllItems() {
+    public ResponseEntity<List<Item>> getAllItems(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Read the tag first: a change made while the list is loaded must not be covered by it.
+        String tag = this.eTags.collectionTag();
+        if (ItemETags.matches(ifNoneMatch, tag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+        }
         try {
             List<Item> items = this.itemService.findAll();
-            return ResponseEntity.ok(items);
+            return ResponseEntity.ok().eTag(tag).body(items);
         } catch (ServiceException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         }
@@ -41,12 +70,22 @@ public class ItemController implements IItemController {
 
     @Override
     @PostMapping
-    public ResponseEntity<Item> createItem(@Valid @RequestBody Item item, BindingResult result) {
+    public ResponseEntity<Item> createItem(@Valid @RequestBody Item item, BindingResult result,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         if (result.hasErrors()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Validation errors: " + result.getAllErrors());
         }
         try {
-            return ResponseEntity.status(HttpStatus.CREATED).body(this.itemService.save(item));
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(this.itemService.save(item));
+            }
+            IdempotencyStore.Outcome<Item> outcome = this.idempotencyStore.execute(idempotencyKey,
+                    fingerprint(item), () -> this.itemService.save(item));
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(outcome.replayed()))
+                    .body(outcome.value());
+        } catch (IdempotencyConflictException e) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage(), e);
         } catch (ServiceException e) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
 
@@ -55,10 +94,16 @@ public class ItemController implements IItemController {
 
     @Override
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-
+    public ResponseEntity<Item> getItemById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<String> knownTag = this.eTags.itemTag(id);
+        if (knownTag.isPresent() && ItemETags.matches(ifNoneMatch, knownTag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(knownTag.get()).build();
+        }
+        long mark = this.eTags.mark();
         try {
-            return ResponseEntity.ok(itemService.findById(id));
+            Item item = itemService.findById(id);
+            return ResponseEntity.ok().eTag(this.eTags.remember(item, mark)).body(item);
         } catch (SourceNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found", e);
         }
@@ -68,8 +113,9 @@ public class ItemController implements IItemController {
     @PutMapping("/{id}")
     public ResponseEntity<Item> updateItem(@PathVariable Long id, @Valid @RequestBody Item item) {
         try {
-            itemService.findById(id);
+            Item existing = itemService.findById(id);
             item.setId(id);
+            item.setVersion(existing.getVersion());
             return ResponseEntity.ok(this.itemService.save(item));
         } catch (SourceNotFoundException e) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Error finding item", e);
@@ -92,12 +138,31 @@ public class ItemController implements IItemController {
         }
     }
 
+    @Override
+    @PatchMapping("/{id}/status")
+    public ResponseEntity<Item> updateStatus(@PathVariable Long id, @RequestBody StatusUpdate update) {
+        if (update.status() == null || update.status().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Status is required");
+        }
+        try {
+            return ResponseEntity.ok(this.itemService.updateStatus(id, update.status()));
+        } catch (SourceNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Item not found", e);
+        } catch (ServiceException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error updating item status", e);
+        }
+    }
+
     @Override
     @GetMapping("/process")
-    public ResponseEntity<List<Item>> processItems() {
+    public ResponseEntity<ProcessingResult> processItems(@RequestParam(required = false) Integer minPriority,
+            @RequestHeader(value = PROCESSING_RUN_HEADER, required = false) String runId) {
+        String id = runId == null || runId.isBlank() ? UUID.randomUUID().toString() : runId;
         try {
-            List<Item> processedItems = itemService.processItemsAsync().join();
-            return ResponseEntity.ok(processedItems);
+            ProcessingResult result = itemService.processItemsAsync(minPriority, id).join();
+            return ResponseEntity.ok().header(PROCESSING_RUN_HEADER, id).body(result);
+        } catch (ServiceException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
         } catch (CompletionException e) {
             Throwable cause = e.getCause();
 
@@ -111,4 +176,24 @@ public class ItemController implements IItemController {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error processing items", e);
         }
     }
+
+    @Override
+    @PostMapping("/process/{runId}/cancel")
+    public ResponseEntity<Void> cancelProcessing(@PathVariable String runId) {
+        if (!itemService.cancelProcessing(runId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No processing run " + runId + " in progress");
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    @Override
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        return this.changeStream.subscribe();
+    }
+
+    private static String fingerprint(Item item) {
+        return IdempotencyStore.fingerprint(item.getName(), item.getDescription(), item.getStatus(), item.getEmail(),
+                item.getPriority());
+    }
 }
@@ -0,0 +1,36 @@
+package com.siemens.internship.diagnostics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulated Hibernate activity for a single endpoint.
+ */
+public class EndpointStatistics {
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+    private final LongAdder entityLoads = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder secondLevelCacheHits = new LongAdder();
+
+    void record(long statementCount, long entityLoadCount, long flushCount, long cacheHitCount) {
+        this.requests.increment();
+        this.statements.add(statementCount);
+        this.maxStatements.accumulate(statementCount);
+        this.entityLoads.add(entityLoadCount);
+        this.flushes.add(flushCount);
+        this.secondLevelCacheHits.add(cacheHitCount);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(requests.sum(), statements.sum(), maxStatements.get(),
+                entityLoads.sum(), flushes.sum(), secondLevelCacheHits.sum());
+    }
+
+    public record Snapshot(long requests, long statements, long maxStatementsPerRequest,
+                           long entityLoads, long flushes, long secondLevelCacheHits) {
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.siemens.internship.diagnostics;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records, per endpoint, how much Hibernate work a request caused.
+ * Statement counts come from {@link SqlStatementCounter} and only cover the request thread.
+ * Entity loads, flushes and cache hits are deltas of the global Hibernate statistics,
+ * so they are approximate while requests overlap.
+ */
+@Component
+public class HibernateStatisticsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = HibernateStatisticsInterceptor.class.getName() + ".start";
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final Map<String, EndpointStatistics> endpoints = new ConcurrentHashMap<>();
+
+    public HibernateStatisticsInterceptor(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, capture());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(start instanceof long[] before)) {
+            return;
+        }
+        long[] after = capture();
+        this.endpoints.computeIfAbsent(endpointOf(request), key -> new EndpointStatistics())
+                .record(after[0] - before[0], after[1] - before[1], after[2] - before[2], after[3] - before[3]);
+    }
+
+    public Map<String, EndpointStatistics.Snapshot> snapshot() {
+        Map<String, EndpointStatistics.Snapshot> result = new TreeMap<>();
+        this.endpoints.forEach((endpoint, statistics) -> result.put(endpoint, statistics.snapshot()));
+        return result;
+    }
+
+    public void reset() {
+        this.endpoints.clear();
+    }
+
+    private long[] capture() {
+        Statistics statistics = statistics();
+        if (statistics == null || !statistics.isStatisticsEnabled()) {
+            return new long[] { SqlStatementCounter.current(), 0, 0, 0 };
+        }
+        return new long[] {
+                SqlStatementCounter.current(),
+                statistics.getEntityLoadCount(),
+                statistics.getFlushCount(),
+                statistics.getSecondLevelCacheHitCount()
+        };
+    }
+
+    private Statistics statistics() {
+        EntityManagerFactory factory = this.entityManagerFactory.getIfAvailable();
+        return factory == null ? null : factory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+
+}
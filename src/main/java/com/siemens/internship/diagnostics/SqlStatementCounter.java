@@ -0,0 +1,28 @@
+package com.siemens.internship.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Hibernate instantiates the inspector itself (see application.properties),
+ * so the counter is kept in a static thread local instead of a Spring bean.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.siemens.internship.diagnostics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Logs where startup time went, once the application is ready, and how long after JVM start
+ * the first request was served. The buffered timeline is always drained so it does not stay on the heap.
+ */
+@Component
+public class StartupTimingReporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingReporter.class);
+    private static final int SLOWEST_BEANS = 10;
+
+    private final boolean enabled;
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    public StartupTimingReporter(@Value("${startup.report.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!(startup instanceof BufferingApplicationStartup buffering)) {
+            return;
+        }
+        StartupTimeline timeline = buffering.drainBufferedTimeline();
+        if (!this.enabled) {
+            return;
+        }
+
+        Map<String, Duration> phases = new TreeMap<>();
+        List<StartupTimeline.TimelineEvent> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent timelineEvent : timeline.getEvents()) {
+            String name = timelineEvent.getStartupStep().getName();
+            phases.merge(name, timelineEvent.getDuration(), Duration::plus);
+            if ("spring.beans.instantiate".equals(name)) {
+                beans.add(timelineEvent);
+            }
+        }
+
+        StringBuilder report = new StringBuilder("Startup timing report (ready after ")
+                .append(event.getTimeTaken().toMillis()).append(" ms)");
+        phases.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .forEach(phase -> report.append(System.lineSeparator())
+                        .append(String.format("  %-45s %6d ms", phase.getKey(), phase.getValue().toMillis())));
+        report.append(System.lineSeparator()).append("  slowest beans (including their dependencies):");
+        beans.stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(SLOWEST_BEANS)
+                .forEach(bean -> report.append(System.lineSeparator())
+                        .append(String.format("    %-43s %6d ms", beanName(bean.getStartupStep()),
+                                bean.getDuration().toMillis())));
+        log.info(report.toString());
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (this.enabled && this.firstRequestSeen.compareAndSet(false, true)) {
+            log.info("First request ({} {}) served {} ms after JVM start", event.getMethod(), event.getRequestUrl(),
+                    ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+
+    private static String beanName(StartupStep step) {
+        List<String> names = new ArrayList<>();
+        step.getTags().forEach(tag -> {
+            if ("beanName".equals(tag.getKey())) {
+                names.add(tag.getValue());
+            }
+        });
+        return names.isEmpty() ? "?" : String.join(",", names);
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.siemens.internship.events;
+
+public enum ItemChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    PROCESSED
+}
@@ -0,0 +1,15 @@
+package com.siemens.internship.events;
+
+import com.siemens.internship.models.Item;
+
+/**
+ * Published by the item service after a mutation has been written.
+ * {@code item} is the saved state, or null for deletions.
+ */
+public record ItemChangedEvent(ItemChangeType type, Long id, Item item) {
+
+    public static ItemChangedEvent deleted(Long id) {
+        return new ItemChangedEvent(ItemChangeType.DELETED, id, null);
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.siemens.internship.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+
+    public IdempotencyConflictException(String message) {
+        super("Idempotency conflict: " + message);
+    }
+
+}
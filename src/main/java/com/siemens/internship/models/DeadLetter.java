@@ -0,0 +1,42 @@
+package com.siemens.internship.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * An item whose processing still failed after all retries, kept so it can be replayed on its own.
+ */
+@Entity
+@Table(name = "dead_letters")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DeadLetter {
+
+    public static final int MAX_CAUSE_LENGTH = 2000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private Long itemId;
+
+    @Column(length = MAX_CAUSE_LENGTH)
+    private String cause;
+
+    private int attempts;
+
+    private Instant failedAt;
+}
@@ -1,10 +1,13 @@
 package com.siemens.internship.models;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -19,8 +22,12 @@ import lombok.Setter;
 @NoArgsConstructor
 public class Item {
 
+    public static final String ID_SEQUENCE = "items_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String name;
@@ -31,4 +38,12 @@ public class Item {
 
     @Email(message = "Email should be valid")
     private String email;
+
+    // Higher values are processed first
+    @Column(nullable = false)
+    private int priority;
+
+    // Incremented on every update, also used for the item's ETag
+    @Version
+    private Long version;
 }
\ No newline at end of file
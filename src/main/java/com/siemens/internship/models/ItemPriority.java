@@ -0,0 +1,7 @@
+package com.siemens.internship.models;
+
+/**
+ * Id and priority of an item, all the processing scheduler needs to order it.
+ */
+public record ItemPriority(Long id, int priority) {
+}
@@ -0,0 +1,16 @@
+package com.siemens.internship.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a processing run. Items that were neither processed nor failed when the run
+ * was cancelled or hit its deadline are listed as not started.
+ */
+public record ProcessingResult(
+        List<Item> processed,
+        Map<Long, String> failed,
+        List<Long> notStarted,
+        boolean cancelled,
+        boolean timedOut) {
+}
@@ -0,0 +1,7 @@
+package com.siemens.internship.models;
+
+/**
+ * Usage of a bounded resource: how much of it is in use and how many callers are waiting for it.
+ */
+public record Saturation(int capacity, int inUse, int waiting) {
+}
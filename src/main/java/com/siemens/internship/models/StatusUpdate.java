@@ -0,0 +1,4 @@
+package com.siemens.internship.models;
+
+public record StatusUpdate(String status) {
+}
@@ -0,0 +1,24 @@
+package com.siemens.internship.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.siemens.internship.models.DeadLetter;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface IDeadLetterRepository extends JpaRepository<DeadLetter, Long> {
+    Optional<DeadLetter> findByItemId(Long itemId);
+
+    @Query("select d.itemId from DeadLetter d")
+    List<Long> findItemIds();
+
+    @Modifying
+    @Transactional
+    @Query("delete from DeadLetter d where d.itemId = :itemId")
+    int deleteByItemId(@Param("itemId") Long itemId);
+}
@@ -2,12 +2,15 @@ package com.siemens.internship.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ItemPriority;
 
 import java.util.List;
 
 public interface IItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT id FROM Item")
-    List<Long> findAllIds();
+    @Query("SELECT new com.siemens.internship.models.ItemPriority(i.id, i.priority) FROM Item i "
+            + "WHERE i.priority >= :minPriority ORDER BY i.priority DESC, i.id")
+    List<ItemPriority> findPrioritiesAtLeast(@Param("minPriority") int minPriority);
 }
@@ -0,0 +1,65 @@
+package com.siemens.internship.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+
+/**
+ * Bounded per-subscriber buffer of pending change events.
+ * Repeated changes to the same id are coalesced into one entry. When more distinct ids are
+ * pending than the buffer holds, everything pending is dropped and the subscriber is told to resync.
+ */
+class ChangeBuffer {
+
+    private final int capacity;
+    private final LinkedHashMap<Long, ItemChangedEvent> pending = new LinkedHashMap<>();
+    private boolean resyncRequired;
+
+    ChangeBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    synchronized void offer(ItemChangedEvent event) {
+        ItemChangedEvent previous = this.pending.get(event.id());
+        if (previous != null) {
+            this.pending.put(event.id(), coalesce(previous, event));
+            return;
+        }
+        if (this.pending.size() >= this.capacity) {
+            this.pending.clear();
+            this.resyncRequired = true;
+            return;
+        }
+        this.pending.put(event.id(), event);
+    }
+
+    synchronized Batch drain() {
+        Batch batch = new Batch(this.resyncRequired, new ArrayList<>(this.pending.values()));
+        this.pending.clear();
+        this.resyncRequired = false;
+        return batch;
+    }
+
+    synchronized boolean isEmpty() {
+        return this.pending.isEmpty() && !this.resyncRequired;
+    }
+
+    private static ItemChangedEvent coalesce(ItemChangedEvent previous, ItemChangedEvent next) {
+        if (previous.type() == ItemChangeType.CREATED && next.type() != ItemChangeType.DELETED) {
+            return new ItemChangedEvent(ItemChangeType.CREATED, next.id(), next.item());
+        }
+        return next;
+    }
+
+    record Batch(boolean resync, List<ItemChangedEvent> events) {
+
+        boolean isEmpty() {
+            return !resync && events.isEmpty();
+        }
+
+    }
+
+}
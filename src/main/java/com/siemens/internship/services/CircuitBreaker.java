@@ -0,0 +1,114 @@
+package com.siemens.internship.services;
+
+import com.siemens.internship.config.ProcessingProperties;
+
+/**
+ * Count based circuit breaker. Opens when the failure rate over the last {@code window} outcomes reaches the
+ * threshold, rejects calls while open, and after the open duration lets a single trial call decide
+ * whether to close again.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRate;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(ProcessingProperties.CircuitBreaker properties) {
+        this.outcomes = new boolean[properties.window()];
+        this.minimumCalls = properties.minimumCalls();
+        this.failureRate = properties.failureRate();
+        this.openNanos = properties.openDuration().toNanos();
+    }
+
+    synchronized boolean tryAcquire() {
+        if (this.state == State.OPEN) {
+            if (System.nanoTime() - this.openedAt < this.openNanos) {
+                return false;
+            }
+            this.state = State.HALF_OPEN;
+            this.trialInFlight = false;
+        }
+        if (this.state == State.HALF_OPEN) {
+            if (this.trialInFlight) {
+                return false;
+            }
+            this.trialInFlight = true;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (this.state == State.HALF_OPEN) {
+            close();
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (this.state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (this.recorded >= this.minimumCalls && this.failures >= this.failureRate * this.recorded) {
+            open();
+        }
+    }
+
+    /**
+     * Gives back a permit whose call ended without an outcome, e.g. because it was interrupted.
+     */
+    synchronized void release() {
+        if (this.state == State.HALF_OPEN) {
+            this.trialInFlight = false;
+        }
+    }
+
+    synchronized State state() {
+        return this.state;
+    }
+
+    private void record(boolean failure) {
+        if (this.recorded == this.outcomes.length) {
+            if (this.outcomes[this.next]) {
+                this.failures--;
+            }
+        } else {
+            this.recorded++;
+        }
+        this.outcomes[this.next] = failure;
+        if (failure) {
+            this.failures++;
+        }
+        this.next = (this.next + 1) % this.outcomes.length;
+    }
+
+    private void open() {
+        this.state = State.OPEN;
+        this.openedAt = System.nanoTime();
+    }
+
+    private void close() {
+        this.state = State.CLOSED;
+        this.trialInFlight = false;
+        this.recorded = 0;
+        this.failures = 0;
+        this.next = 0;
+    }
+
+}
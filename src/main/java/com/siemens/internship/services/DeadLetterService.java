@@ -0,0 +1,57 @@
+package com.siemens.internship.services;
+
+import org.springframework.stereotype.Service;
+
+import com.siemens.internship.exceptions.ServiceException;
+import com.siemens.internship.exceptions.SourceNotFoundException;
+import com.siemens.internship.models.DeadLetter;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.repositories.IDeadLetterRepository;
+
+import java.util.List;
+
+@Service
+public class DeadLetterService implements IDeadLetterService {
+
+    private final IDeadLetterRepository deadLetterRepository;
+    private final ItemProcessor itemProcessor;
+
+    public DeadLetterService(IDeadLetterRepository deadLetterRepository, ItemProcessor itemProcessor) {
+        this.deadLetterRepository = deadLetterRepository;
+        this.itemProcessor = itemProcessor;
+    }
+
+    @Override
+    public List<DeadLetter> findAll() {
+        try {
+            return this.deadLetterRepository.findAll();
+        } catch (Exception e) {
+            throw new ServiceException("Error retrieving dead letters", e);
+        }
+    }
+
+    /**
+     * Processes the dead-lettered item again and removes the dead letter once it succeeds.
+     * On failure the processor updates the dead letter with the new cause.
+     */
+    @Override
+    public Item replay(Long id) {
+        DeadLetter deadLetter = this.deadLetterRepository.findById(id)
+                .orElseThrow(() -> new SourceNotFoundException("dead letter " + id + " not found"));
+        Item processed;
+        try {
+            processed = this.itemProcessor.processOne(deadLetter.getItemId());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Replay of dead letter " + id + " interrupted", e);
+        } catch (SourceNotFoundException e) {
+            this.deadLetterRepository.delete(deadLetter);
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException("Error replaying dead letter " + id, e);
+        }
+        this.deadLetterRepository.delete(deadLetter);
+        return processed;
+    }
+
+}
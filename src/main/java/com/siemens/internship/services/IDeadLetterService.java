@@ -0,0 +1,14 @@
+package com.siemens.internship.services;
+
+import java.util.List;
+
+import com.siemens.internship.models.DeadLetter;
+import com.siemens.internship.models.Item;
+
+public interface IDeadLetterService {
+
+    List<DeadLetter> findAll();
+
+    Item replay(Long id);
+
+}
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ProcessingResult;
 
 public interface IItemService {
 
@@ -15,6 +16,10 @@ public interface IItemService {
 
     void deleteById(Long id);
 
-    CompletableFuture<List<Item>> processItemsAsync();
+    Item updateStatus(Long id, String status);
+
+    CompletableFuture<ProcessingResult> processItemsAsync(Integer minPriority, String runId);
+
+    boolean cancelProcessing(String runId);
 
 }
@@ -0,0 +1,155 @@
+package com.siemens.internship.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.siemens.internship.exceptions.IdempotencyConflictException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of recent requests by their idempotency key.
+ * The first request with a key runs the action; requests with the same key arriving while it runs
+ * wait for it, later ones get the stored result. Failed actions are not remembered so the client can retry.
+ * Entries expire after the configured time to live and the oldest are dropped once the store is full;
+ * an entry whose action is still running is never dropped, so a retry cannot run the action a second time.
+ * A key is bound to the SHA-256 {@link #fingerprint} of the request it was first used with.
+ */
+@Service
+public class IdempotencyStore {
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public IdempotencyStore(@Value("${items.idempotency.max-entries:10000}") int maxEntries,
+            @Value("${items.idempotency.ttl-ms:600000}") long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String key, String fingerprint, Supplier<T> action) {
+        Entry entry;
+        boolean owner = false;
+        synchronized (this.entries) {
+            long now = System.nanoTime();
+            evict(now);
+            entry = this.entries.get(key);
+            if (entry == null) {
+                entry = new Entry(fingerprint, now + this.ttlNanos);
+                this.entries.put(key, entry);
+                owner = true;
+            }
+        }
+        if (!entry.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyConflictException("key " + key + " was already used for a different request");
+        }
+        if (owner) {
+            return new Outcome<>(run(key, entry, action), false);
+        }
+        entry.waiters.incrementAndGet();
+        try {
+            return new Outcome<>((T) entry.result.join(), true);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } finally {
+            entry.waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * SHA-256 over the given request fields. Each field is written with its length first, so values cannot
+     * shift from one field into the next.
+     */
+    public static String fingerprint(Object... fields) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (Object field : fields) {
+            byte[] bytes = field == null ? null : field.toString().getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes == null ? -1 : bytes.length).array());
+            if (bytes != null) {
+                digest.update(bytes);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public int size() {
+        synchronized (this.entries) {
+            return this.entries.size();
+        }
+    }
+
+    /**
+     * Number of requests waiting for the running action of the given key.
+     */
+    int waiters(String key) {
+        synchronized (this.entries) {
+            Entry entry = this.entries.get(key);
+            return entry == null ? 0 : entry.waiters.get();
+        }
+    }
+
+    private <T> T run(String key, Entry entry, Supplier<T> action) {
+        try {
+            T value = action.get();
+            entry.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            synchronized (this.entries) {
+                this.entries.remove(key, entry);
+            }
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // Entries share one time to live, so insertion order is also expiry order.
+    private void evict(long now) {
+        Iterator<Map.Entry<String, Entry>> iterator = this.entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Entry oldest = iterator.next().getValue();
+            if (oldest.expiresAt - now > 0 && this.entries.size() < this.maxEntries) {
+                return;
+            }
+            // Running entries stay, the store may go over its size by the number of requests in flight.
+            if (oldest.result.isDone()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public record Outcome<T>(T value, boolean replayed) {
+    }
+
+    private static final class Entry {
+
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.siemens.internship.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans item change events out to Server-Sent Events subscribers.
+ * Each subscriber gets its own {@link ChangeBuffer}; delivery runs on a small shared pool
+ * so a slow consumer only ever costs its own bounded buffer.
+ */
+@Service
+public class ItemChangeStream {
+
+    static final String RESYNC_EVENT = "resync";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final ExecutorService deliveryExecutor;
+    private final int bufferCapacity;
+    private final long timeoutMillis;
+
+    public ItemChangeStream(@Value("${items.changes.buffer-capacity:256}") int bufferCapacity,
+            @Value("${items.changes.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${items.changes.delivery-threads:2}") int deliveryThreads) {
+        this.bufferCapacity = bufferCapacity;
+        this.timeoutMillis = timeoutMillis;
+        this.deliveryExecutor = Executors.newFixedThreadPool(deliveryThreads);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(this.timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ChangeBuffer(this.bufferCapacity));
+        this.subscribers.add(subscriber);
+        emitter.onCompletion(() -> this.subscribers.remove(subscriber));
+        emitter.onTimeout(() -> this.subscribers.remove(subscriber));
+        emitter.onError(e -> this.subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return this.subscribers.size();
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        for (Subscriber subscriber : this.subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.deliveryExecutor.shutdownNow();
+        this.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        this.subscribers.clear();
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ChangeBuffer buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, ChangeBuffer buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        private void offer(ItemChangedEvent event) {
+            this.buffer.offer(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!this.draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                deliveryExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                this.draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                ChangeBuffer.Batch batch;
+                while (!(batch = this.buffer.drain()).isEmpty()) {
+                    if (batch.resync()) {
+                        this.emitter.send(SseEmitter.event()
+                                .id(String.valueOf(sequence.incrementAndGet()))
+                                .name(RESYNC_EVENT)
+                                .data(RESYNC_EVENT));
+                    }
+                    for (ItemChangedEvent event : batch.events()) {
+                        send(event);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                this.emitter.completeWithError(e);
+                return;
+            } finally {
+                this.draining.set(false);
+            }
+            if (!this.buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(ItemChangedEvent event) throws IOException {
+            Object payload = event.type() == ItemChangeType.DELETED ? Map.of("id", event.id()) : event.item();
+            this.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(sequence.incrementAndGet()))
+                    .name(event.type().name().toLowerCase())
+                    .data(payload));
+        }
+
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.siemens.internship.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.models.Item;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Strong ETags for items and for the item collection, answerable without reading the database.
+ * A single item's tag is built from its id and version. The versions of items that were changed or
+ * served recently are remembered from {@link ItemChangedEvent}s and responses, up to a maximum number of
+ * entries; past it, a tenth of the entries is dropped and those items fall back to the version of the
+ * entity read from the database.
+ * The collection tag is a modification counter bumped on every change; it starts from the startup time
+ * so tags handed out before a restart never match.
+ */
+@Service
+public class ItemETags {
+
+    // Deleted ids keep this version so a response read before the delete cannot bring them back.
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong modifications = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    public ItemETags(@Value("${items.etags.max-entries:100000}") int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public String collectionTag() {
+        return "\"items-" + this.epoch + "-" + this.modifications.get() + "\"";
+    }
+
+    /**
+     * The tag of the item's current version, if it is known without a database read.
+     */
+    public Optional<String> itemTag(Long id) {
+        Long version = id == null ? null : this.versions.get(id);
+        if (version == null || version == DELETED) {
+            return Optional.empty();
+        }
+        return Optional.of(tag(id, version));
+    }
+
+    /**
+     * Marks the start of a read whose result is passed to {@link #remember(Item, long)}.
+     */
+    public long mark() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Records the version of an item read from the database and returns its tag.
+     * Versions only move forward, so a response that raced with an update does not overwrite it. If entries
+     * were dropped since the read started, the newer version or tombstone may be among them, so the read is
+     * not recorded.
+     */
+    public String remember(Item item, long mark) {
+        long version = item.getVersion() == null ? 0L : item.getVersion();
+        if (this.evictions.get() == mark) {
+            record(item.getId(), version);
+            if (this.evictions.get() != mark) {
+                // An eviction ran in between and may have dropped a newer version, take the read back.
+                this.versions.remove(item.getId(), version);
+            }
+        }
+        return tag(item.getId(), version);
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (event.id() == null) {
+            return;
+        }
+        record(event.id(), event.type() == ItemChangeType.DELETED ? DELETED
+                : event.item().getVersion() == null ? 0L : event.item().getVersion());
+        this.modifications.incrementAndGet();
+    }
+
+    public int size() {
+        return this.versions.size();
+    }
+
+    private void record(Long id, long version) {
+        this.versions.merge(id, version, Math::max);
+        if (this.versions.size() > this.maxEntries) {
+            evict();
+        }
+    }
+
+    private synchronized void evict() {
+        int excess = this.versions.size() - this.maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        this.evictions.incrementAndGet();
+        int remove = excess + this.maxEntries / 10;
+        Iterator<Long> ids = this.versions.keySet().iterator();
+        while (remove-- > 0 && ids.hasNext()) {
+            ids.next();
+            ids.remove();
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header value matches the tag, using the weak comparison the header calls for.
+     */
+    public static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null || tag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String tag(Long id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+}
@@ -0,0 +1,422 @@
+package com.siemens.internship.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.exceptions.ServiceException;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.repositories.IItemRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * Optional append-only journal of item mutations kept in a memory-mapped file.
+ * Every {@link ItemChangedEvent} is appended as a full record. Events are appended in the order they are
+ * published after commit, which is not always the order of the commits, so replay keeps the record with the
+ * highest version of each item rather than the last one.
+ * The journal is compacted into a snapshot once it grows past the threshold: records written before the
+ * compaction started are dropped, the rest are copied into a fresh journal.
+ * On startup the snapshot and the journal are replayed and, if the database is empty, the items are
+ * restored into it before the web server accepts requests. The read model then loads the restored items
+ * instead of scanning the table again.
+ * An append that fails is logged rather than failing the request whose change was already committed; the
+ * journal is then compacted on the next run, since the snapshot is taken from the database.
+ *
+ * File layout: a header of magic number and format version, then records of payload length, CRC32 of the
+ * payload and payload. The length is written last, so a record torn by a crash reads as the end of the
+ * journal. Files with another magic number or version are rejected at startup.
+ */
+@Service
+public class ItemJournal implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemJournal.class);
+
+    static final String JOURNAL_FILE = "items.journal";
+    static final String SNAPSHOT_FILE = "items.snapshot";
+
+    static final int MAGIC = 0x494A524E;
+    static final int FORMAT_VERSION = 1;
+    static final int FILE_HEADER = 8;
+    private static final int RECORD_HEADER = 8;
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final int SNAPSHOT_PAGE_SIZE = 1000;
+    private static final String INSERT_SQL =
+            "INSERT INTO items (id, name, description, status, email, priority, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final IItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final long compactionThresholdBytes;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private final AtomicInteger failedAppends = new AtomicInteger();
+    private Map<Long, Item> restored;
+
+    public ItemJournal(IItemRepository itemRepository, JdbcTemplate jdbcTemplate,
+            @Value("${items.journal.enabled:false}") boolean enabled,
+            @Value("${items.journal.directory:data/journal}") String directory,
+            @Value("${items.journal.segment-bytes:16777216}") int segmentBytes,
+            @Value("${items.journal.compaction-threshold-bytes:8388608}") long compactionThresholdBytes) {
+        this.itemRepository = itemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.compactionThresholdBytes = compactionThresholdBytes;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!this.enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<Long, Item> items = open();
+        int restored = restore(items);
+        if (restored > 0) {
+            synchronized (this) {
+                this.restored = items;
+            }
+        }
+        log.info("Replayed item journal ({} items, {} restored into the database) in {} ms", items.size(), restored,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * The items restored into the empty database at startup, handed out once so the read model can load
+     * them without reading the table. Empty if the database was not restored from the journal.
+     */
+    public synchronized Optional<Collection<Item>> takeRestored() {
+        Map<Long, Item> items = this.restored;
+        this.restored = null;
+        return Optional.ofNullable(items).map(Map::values);
+    }
+
+    /**
+     * Maps the journal and replays the snapshot followed by the journal.
+     * Appends continue after the last intact record.
+     */
+    synchronized Map<Long, Item> open() {
+        try {
+            Files.createDirectories(this.directory);
+            Map<Long, Item> items = new LinkedHashMap<>();
+            Path snapshot = this.directory.resolve(SNAPSHOT_FILE);
+            if (Files.exists(snapshot)) {
+                try (FileChannel snapshotChannel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+                    ByteBuffer snapshotBuffer = snapshotChannel.map(FileChannel.MapMode.READ_ONLY, 0,
+                            snapshotChannel.size());
+                    checkHeader(snapshotBuffer, snapshot);
+                    replay(snapshotBuffer, items);
+                }
+            }
+
+            this.channel = FileChannel.open(this.directory.resolve(JOURNAL_FILE), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    Math.max(this.channel.size(), this.segmentBytes));
+            if (this.buffer.getInt(0) == 0 && this.buffer.getInt(Integer.BYTES) == 0) {
+                this.buffer.putInt(Integer.BYTES, FORMAT_VERSION).putInt(0, MAGIC);
+            }
+            checkHeader(this.buffer, this.directory.resolve(JOURNAL_FILE));
+            this.position = replay(this.buffer, items);
+            if (this.position + Integer.BYTES <= this.buffer.capacity() && this.buffer.getInt(this.position) != 0) {
+                // A torn or corrupt record: clear it so later appends are not followed by stale bytes.
+                for (int i = this.position; i < this.buffer.capacity(); i++) {
+                    this.buffer.put(i, (byte) 0);
+                }
+                log.warn("Item journal truncated after {} bytes", this.position);
+            }
+            return items;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open item journal in " + this.directory, e);
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!this.enabled || event.id() == null) {
+            return;
+        }
+        try {
+            append(encode(event.type() == ItemChangeType.DELETED ? DELETE : UPSERT, event.id(), event.item()));
+        } catch (RuntimeException e) {
+            // The change is committed, the snapshot taken by the next compaction covers the lost record.
+            this.failedAppends.incrementAndGet();
+            log.error("Could not journal {} of item {}, compacting on the next run", event.type(), event.id(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${items.journal.compaction-interval-ms:60000}")
+    public void compactIfNeeded() {
+        if (this.enabled && (this.failedAppends.get() > 0 || size() > this.compactionThresholdBytes)) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the database and keeps only the journal records appended while it was taken.
+     * Mutations are journaled after they are committed, so everything before the mark is in the snapshot.
+     */
+    public void compact() {
+        int mark;
+        int failed;
+        synchronized (this) {
+            if (this.channel == null) {
+                return;
+            }
+            mark = this.position;
+            // Appends that failed before the mark are committed, so the snapshot will contain them.
+            failed = this.failedAppends.get();
+        }
+        try {
+            writeSnapshot();
+            synchronized (this) {
+                if (this.channel == null) {
+                    return;
+                }
+                int tail = this.position - mark;
+                Path journal = this.directory.resolve(JOURNAL_FILE);
+                Path next = this.directory.resolve(JOURNAL_FILE + ".next");
+                FileChannel nextChannel = FileChannel.open(next, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                MappedByteBuffer nextBuffer = nextChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        Math.max(this.segmentBytes, FILE_HEADER + 2L * tail));
+                nextBuffer.putInt(0, MAGIC).putInt(Integer.BYTES, FORMAT_VERSION);
+                nextBuffer.put(FILE_HEADER, this.buffer, mark, tail);
+                nextBuffer.force();
+                Files.move(next, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                this.channel.close();
+                this.channel = nextChannel;
+                this.buffer = nextBuffer;
+                this.position = FILE_HEADER + tail;
+                this.failedAppends.addAndGet(-failed);
+            }
+            log.info("Compacted item journal, {} bytes kept", size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact item journal", e);
+        }
+    }
+
+    public synchronized int size() {
+        return this.position;
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (this.channel != null) {
+            this.buffer.force();
+            this.channel.close();
+            this.channel = null;
+            this.buffer = null;
+        }
+    }
+
+    private synchronized void append(byte[] payload) {
+        if (this.channel == null) {
+            return;
+        }
+        int recordLength = RECORD_HEADER + payload.length;
+        // Keep room for the zero length that marks the end of the journal.
+        ensureCapacity((long) this.position + recordLength + Integer.BYTES);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        this.buffer.put(this.position + RECORD_HEADER, payload);
+        this.buffer.putInt(this.position + Integer.BYTES, (int) crc.getValue());
+        this.buffer.putInt(this.position, payload.length);
+        this.position += recordLength;
+    }
+
+    private void ensureCapacity(long required) {
+        if (required <= this.buffer.capacity()) {
+            return;
+        }
+        long capacity = Math.max(2L * this.buffer.capacity(), required);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new ServiceException("Item journal is full, compaction is not keeping up");
+        }
+        try {
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not grow item journal", e);
+        }
+    }
+
+    private void writeSnapshot() throws IOException {
+        Path snapshot = this.directory.resolve(SNAPSHOT_FILE);
+        Path temporary = this.directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            Page<Item> page;
+            int pageNumber = 0;
+            do {
+                page = this.itemRepository.findAll(PageRequest.of(pageNumber++, SNAPSHOT_PAGE_SIZE, Sort.by("id")));
+                for (Item item : page.getContent()) {
+                    byte[] payload = encode(UPSERT, item.getId(), item);
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+                    record.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+                    while (record.hasRemaining()) {
+                        out.write(record);
+                    }
+                }
+            } while (page.hasNext());
+            out.force(true);
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Inserts the replayed items when the database starts out empty and moves the id sequence past them.
+     */
+    private int restore(Map<Long, Item> items) {
+        // Also waits for a deferred JPA bootstrap, so the schema exists before inserting.
+        if (items.isEmpty() || this.itemRepository.count() > 0) {
+            return 0;
+        }
+        List<Object[]> rows = new ArrayList<>(items.size());
+        long maxId = 0;
+        for (Item item : items.values()) {
+            rows.add(new Object[] { item.getId(), item.getName(), item.getDescription(), item.getStatus(),
+                    item.getEmail(), item.getPriority(), item.getVersion() });
+            maxId = Math.max(maxId, item.getId());
+        }
+        this.jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        this.jdbcTemplate.execute("ALTER SEQUENCE " + Item.ID_SEQUENCE + " RESTART WITH "
+                + (maxId + Item.ID_ALLOCATION_SIZE + 1));
+        return rows.size();
+    }
+
+    private static void checkHeader(ByteBuffer source, Path file) {
+        if (source.limit() < FILE_HEADER || source.getInt(0) != MAGIC) {
+            throw new IllegalStateException(file + " is not an item journal file, move it away to start a new one");
+        }
+        int version = source.getInt(Integer.BYTES);
+        if (version != FORMAT_VERSION) {
+            throw new IllegalStateException(file + " has journal format " + version + ", this version reads format "
+                    + FORMAT_VERSION);
+        }
+    }
+
+    private static int replay(ByteBuffer source, Map<Long, Item> items) {
+        int offset = FILE_HEADER;
+        while (offset + RECORD_HEADER <= source.limit()) {
+            int length = source.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER + (long) length > source.limit()) {
+                break;
+            }
+            ByteBuffer payload = source.slice(offset + RECORD_HEADER, length);
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != source.getInt(offset + Integer.BYTES)) {
+                break;
+            }
+            apply(payload, items);
+            offset += RECORD_HEADER + length;
+        }
+        return offset;
+    }
+
+    private static void apply(ByteBuffer payload, Map<Long, Item> items) {
+        byte type = payload.get();
+        long id = payload.getLong();
+        if (type == DELETE) {
+            items.remove(id);
+            return;
+        }
+        int priority = payload.getInt();
+        long version = payload.getLong();
+        Item replayed = items.get(id);
+        if (replayed != null && replayed.getVersion() > version) {
+            return;
+        }
+        Item item = new Item();
+        item.setId(id);
+        item.setPriority(priority);
+        item.setVersion(version);
+        item.setName(readString(payload));
+        item.setDescription(readString(payload));
+        item.setStatus(readString(payload));
+        item.setEmail(readString(payload));
+        // Re-inserting keeps the map in order of last change.
+        items.remove(id);
+        items.put(id, item);
+    }
+
+    static byte[] encode(byte type, long id, Item item) {
+        if (type == DELETE || item == null) {
+            return ByteBuffer.allocate(1 + Long.BYTES).put(DELETE).putLong(id).array();
+        }
+        byte[][] strings = { utf8(item.getName()), utf8(item.getDescription()), utf8(item.getStatus()),
+                utf8(item.getEmail()) };
+        int size = 1 + Long.BYTES + Integer.BYTES + Long.BYTES;
+        for (byte[] string : strings) {
+            size += Integer.BYTES + (string == null ? 0 : string.length);
+        }
+        ByteBuffer payload = ByteBuffer.allocate(size).put(UPSERT).putLong(id).putInt(item.getPriority())
+                .putLong(item.getVersion() == null ? 0L : item.getVersion());
+        for (byte[] string : strings) {
+            if (string == null) {
+                payload.putInt(-1);
+            } else {
+                payload.putInt(string.length).put(string);
+            }
+        }
+        return payload.array();
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer payload) {
+        int length = payload.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,655 @@
+package com.siemens.internship.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.siemens.internship.config.Bulkhead;
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.exceptions.ServiceException;
+import com.siemens.internship.exceptions.SourceNotFoundException;
+import com.siemens.internship.models.DeadLetter;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ItemPriority;
+import com.siemens.internship.models.ProcessingResult;
+import com.siemens.internship.models.Saturation;
+import com.siemens.internship.repositories.IDeadLetterRepository;
+import com.siemens.internship.repositories.IItemRepository;
+
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.SQLTransientException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs the status processing of all items on a dedicated pool, highest priority first.
+ * All runs share one {@link ProcessingScheduler}, so a run of urgent items overtakes a running backfill.
+ * A run has an overall deadline, every item has its own timeout, and runs can be cancelled.
+ * Whatever happens, the returned future completes with the items processed so far,
+ * the failures with their reason and the items that were never started.
+ * Items are read a page at a time when the first item of the page is dispatched to a worker, so reads do not grow
+ * with the run; an item is only read on its own when it is retried or missing from its page. A page copy that went
+ * stale before its item ran costs one immediate re-read, not a retry.
+ * Transient database errors are retried per item with jittered exponential backoff behind a circuit breaker;
+ * items that still fail are written to the dead-letter table and can be replayed with {@link #processOne}.
+ * While the breaker is open, items fail at once and their dead letters are held back instead of being written
+ * through the database that is failing; they are written on an interval, with the first write as the breaker's
+ * trial call, and after every success once it has closed. An item that succeeds loses its dead letter.
+ * Write conflicts are retried like transient errors but do not count against the breaker.
+ */
+@Service
+public class ItemProcessor {
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int SUCCEEDED = 2;
+    private static final int FAILED = 3;
+    private static final int SKIPPED = 4;
+    // Writing the result; neither the item timeout nor stopping the run may interrupt it now.
+    private static final int WRITING = 5;
+
+    private static final String SHUTTING_DOWN = "processing is shutting down";
+    private static final int PAGE_SIZE = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(ItemProcessor.class);
+
+    private final IItemRepository itemRepository;
+    private final IDeadLetterRepository deadLetterRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StatusWriteBuffer statusBuffer;
+    private final ProcessingProperties properties;
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolExecutor executorService;
+    private final ProcessingScheduler scheduler;
+    private final ScheduledExecutorService timeoutScheduler;
+    private final ExecutorService feeder;
+    private final Map<String, ProcessingRun> activeRuns = new ConcurrentHashMap<>();
+    private final Set<Long> deadLettered = ConcurrentHashMap.newKeySet();
+    private final Map<Long, HeldDeadLetter> heldDeadLetters = new ConcurrentHashMap<>();
+
+    public ItemProcessor(IItemRepository itemRepository, IDeadLetterRepository deadLetterRepository,
+            ApplicationEventPublisher eventPublisher, StatusWriteBuffer statusBuffer, ProcessingProperties properties) {
+        this.itemRepository = itemRepository;
+        this.deadLetterRepository = deadLetterRepository;
+        this.eventPublisher = eventPublisher;
+        this.statusBuffer = statusBuffer;
+        this.properties = properties;
+        this.circuitBreaker = new CircuitBreaker(properties.circuitBreaker());
+        // Worker threads take their database connections from the processing pool.
+        this.executorService = new ThreadPoolExecutor(properties.threads(), properties.threads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                Bulkhead.PROCESSING.threadFactory("item-processing-"));
+        this.scheduler = new ProcessingScheduler(this.executorService, properties.threads(), properties.queue());
+        this.timeoutScheduler = Executors.newSingleThreadScheduledExecutor();
+        // Feeds runs into the queue, so callers do not wait while it is full. Every run is fed on its own thread,
+        // so a backfill waiting for room never keeps a later, more urgent run out of the queue. Feeders do not use
+        // the database; should they, they borrow from the interactive pool, since the processing pool has exactly
+        // one connection per worker.
+        this.feeder = Executors.newCachedThreadPool(Bulkhead.INTERACTIVE.threadFactory("item-processing-feeder-"));
+    }
+
+    /**
+     * Loads the items that already have a dead letter, so a later success knows to remove it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadDeadLettered() {
+        try {
+            this.deadLettered.addAll(this.deadLetterRepository.findItemIds());
+        } catch (Exception e) {
+            log.warn("Could not load dead-lettered items, their dead letters stay after a successful run", e);
+        }
+    }
+
+    /**
+     * Processes every item whose priority is at least {@code minPriority}, or every item when it is null,
+     * as a run with a generated id.
+     */
+    public CompletableFuture<ProcessingResult> processAll(Integer minPriority) {
+        return processAll(minPriority, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Like {@link #processAll(Integer)}, as a run that can be cancelled with {@link #cancel} under the given id.
+     *
+     * @throws ServiceException if a run with the id is still active
+     */
+    public CompletableFuture<ProcessingResult> processAll(Integer minPriority, String runId) {
+        if (this.activeRuns.containsKey(runId)) {
+            throw new ServiceException("processing run " + runId + " is already active");
+        }
+        List<ItemPriority> items;
+        try {
+            items = this.itemRepository.findPrioritiesAtLeast(minPriority != null ? minPriority : Integer.MIN_VALUE);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(new ServiceException("Error initiating async processing", e));
+        }
+        ProcessingRun run = new ProcessingRun(items);
+        if (this.activeRuns.putIfAbsent(runId, run) != null) {
+            throw new ServiceException("processing run " + runId + " is already active");
+        }
+        run.result.whenComplete((result, ex) -> this.activeRuns.remove(runId, run));
+        run.start();
+        return run.result;
+    }
+
+    /**
+     * Stops the run with the given id: its queued items are dropped and its running items are interrupted.
+     *
+     * @return false if no run with the id is active
+     */
+    public boolean cancel(String runId) {
+        ProcessingRun run = this.activeRuns.get(runId);
+        if (run == null || !run.stop(true)) {
+            return false;
+        }
+        this.scheduler.purge();
+        return true;
+    }
+
+    /**
+     * Stops every active run, as on shutdown.
+     *
+     * @return the number of runs that were cancelled
+     */
+    public int cancelAll() {
+        int cancelled = 0;
+        for (ProcessingRun run : this.activeRuns.values()) {
+            if (run.stop(true)) {
+                cancelled++;
+            }
+        }
+        this.scheduler.purge();
+        return cancelled;
+    }
+
+    /**
+     * Processes a single item on the calling thread with the same retry policy as a run.
+     */
+    public Item processOne(Long id) throws InterruptedException {
+        return processWithRetry(id, null, WriteGuard.NONE);
+    }
+
+    /**
+     * Worker threads of the processing executor in use, and items queued for them.
+     */
+    public Saturation saturation() {
+        return new Saturation(this.executorService.getMaximumPoolSize(), this.executorService.getActiveCount(),
+                this.scheduler.queued());
+    }
+
+    /**
+     * Writes the dead letters held back while the circuit breaker was open. The first write is the breaker's
+     * trial call, so held dead letters reach the table once the database is back even if no item succeeds.
+     */
+    @Scheduled(fixedDelayString = "${items.processing.held-dead-letter-interval-ms:5000}")
+    public void writeHeldDeadLetters() {
+        for (Long itemId : new ArrayList<>(this.heldDeadLetters.keySet())) {
+            if (!this.circuitBreaker.tryAcquire()) {
+                return;
+            }
+            HeldDeadLetter held = this.heldDeadLetters.remove(itemId);
+            if (held == null) {
+                this.circuitBreaker.release();
+                continue;
+            }
+            try {
+                saveDeadLetter(itemId, held.attempts(), held.failure());
+                this.circuitBreaker.onSuccess();
+            } catch (RuntimeException e) {
+                // A newer failure of the same item, held in the meantime, replaces this one.
+                this.heldDeadLetters.putIfAbsent(itemId, held);
+                if (countsAsFailure(e)) {
+                    this.circuitBreaker.onFailure();
+                } else {
+                    this.circuitBreaker.release();
+                }
+                log.warn("Could not write held dead letter of item {}, retrying later", itemId, e);
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cancelAll();
+        writeHeldDeadLetters();
+        if (!this.heldDeadLetters.isEmpty()) {
+            log.error("Dead letters of items {} were held while the circuit breaker was open and are lost",
+                    this.heldDeadLetters.keySet());
+        }
+        this.feeder.shutdownNow();
+        this.executorService.shutdownNow();
+        this.timeoutScheduler.shutdownNow();
+    }
+
+    private Item processWithRetry(Long id, Item loaded, WriteGuard guard) throws InterruptedException {
+        ProcessingProperties.Retry retry = this.properties.retry();
+        Item copy = loaded;
+        for (int attempt = 1; ; attempt++) {
+            if (!this.circuitBreaker.tryAcquire()) {
+                ServiceException rejected = new ServiceException("circuit breaker open, database calls are suspended");
+                holdDeadLetter(id, attempt - 1, rejected);
+                throw rejected;
+            }
+            RuntimeException failure;
+            boolean recorded = false;
+            try {
+                Item item = processItem(id, copy, guard);
+                this.circuitBreaker.onSuccess();
+                recorded = true;
+                onProcessed(id);
+                return item;
+            } catch (RuntimeException e) {
+                guard.abort();
+                // Only transient errors say something about the database; others leave the breaker alone.
+                if (countsAsFailure(e)) {
+                    this.circuitBreaker.onFailure();
+                    recorded = true;
+                }
+                failure = e;
+            } finally {
+                if (!recorded) {
+                    this.circuitBreaker.release();
+                }
+            }
+
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Processing of item " + id + " interrupted");
+            }
+            boolean staleCopy = copy != null && isConflict(failure);
+            // Every further try reads the item itself.
+            copy = null;
+            if (staleCopy) {
+                attempt--;
+                continue;
+            }
+            if (!isTransient(failure) || attempt >= retry.maxAttempts()) {
+                if (failure instanceof SourceNotFoundException) {
+                    throw failure;
+                }
+                if (this.circuitBreaker.state() == CircuitBreaker.State.CLOSED) {
+                    deadLetter(id, attempt, failure);
+                } else {
+                    holdDeadLetter(id, attempt, failure);
+                }
+                throw failure;
+            }
+            Thread.sleep(backoff(retry, attempt));
+        }
+    }
+
+    private static long backoff(ProcessingProperties.Retry retry, int attempt) {
+        long exponential = retry.initialBackoff().toMillis() << Math.min(attempt - 1, 30);
+        long cap = Math.min(retry.maxBackoff().toMillis(), exponential);
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static boolean countsAsFailure(Throwable error) {
+        return isTransient(error) && !isConflict(error);
+    }
+
+    // Write contention is worth a retry but says nothing about the database's health.
+    private static boolean isConflict(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConcurrencyFailureException || cause instanceof SQLTransactionRollbackException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void onProcessed(Long id) {
+        this.heldDeadLetters.remove(id);
+        if (this.deadLettered.remove(id)) {
+            try {
+                this.deadLetterRepository.deleteByItemId(id);
+            } catch (Exception e) {
+                this.deadLettered.add(id);
+                log.warn("Could not remove the dead letter of processed item {}", id, e);
+            }
+        }
+        if (!this.heldDeadLetters.isEmpty() && this.circuitBreaker.state() == CircuitBreaker.State.CLOSED) {
+            writeHeldDeadLetters();
+        }
+    }
+
+    private void holdDeadLetter(Long itemId, int attempts, RuntimeException failure) {
+        this.heldDeadLetters.merge(itemId, new HeldDeadLetter(attempts, failure),
+                (held, next) -> new HeldDeadLetter(held.attempts() + next.attempts(), next.failure()));
+    }
+
+    private void deadLetter(Long itemId, int attempts, Exception failure) {
+        try {
+            saveDeadLetter(itemId, attempts, failure);
+        } catch (Exception e) {
+            log.error("Could not dead-letter item {} after {} attempts", itemId, attempts, e);
+        }
+    }
+
+    private void saveDeadLetter(Long itemId, int attempts, Exception failure) {
+        DeadLetter deadLetter = this.deadLetterRepository.findByItemId(itemId).orElseGet(DeadLetter::new);
+        deadLetter.setItemId(itemId);
+        deadLetter.setAttempts(attempts);
+        deadLetter.setCause(describe(failure));
+        deadLetter.setFailedAt(Instant.now());
+        this.deadLetterRepository.save(deadLetter);
+        this.deadLettered.add(itemId);
+    }
+
+    private static String describe(Throwable failure) {
+        StringBuilder description = new StringBuilder();
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (description.length() > 0) {
+                description.append(" <- ");
+            }
+            description.append(cause.getClass().getSimpleName()).append(": ").append(cause.getMessage());
+        }
+        return description.length() > DeadLetter.MAX_CAUSE_LENGTH
+                ? description.substring(0, DeadLetter.MAX_CAUSE_LENGTH)
+                : description.toString();
+    }
+
+    private Item processItem(Long id, Item loaded, WriteGuard guard) throws InterruptedException {
+        Thread.sleep(100);
+        if (this.statusBuffer.isEnabled()) {
+            beginWrite(id, guard);
+            // Same ordering as interactive status changes, see StatusWriteBuffer.
+            return loaded != null
+                    ? this.statusBuffer.updateStatus(loaded, "PROCESSED", ItemChangeType.PROCESSED)
+                    : this.statusBuffer.updateStatus(id, "PROCESSED", ItemChangeType.PROCESSED);
+        }
+        Item item = loaded != null ? loaded : this.itemRepository.findById(id)
+                .orElseThrow(() -> new SourceNotFoundException("id " + id + " not found"));
+        beginWrite(id, guard);
+
+        item.setStatus("PROCESSED");
+        Item processed = this.itemRepository.save(item);
+        this.eventPublisher.publishEvent(new ItemChangedEvent(ItemChangeType.PROCESSED, processed.getId(), processed));
+        return processed;
+    }
+
+    private static void beginWrite(Long id, WriteGuard guard) throws InterruptedException {
+        if (!guard.begin()) {
+            throw new InterruptedException("Processing of item " + id + " was stopped before its write");
+        }
+    }
+
+    private final class ProcessingRun {
+
+        private final List<Long> itemIds;
+        private final int[] priorities;
+        private final AtomicIntegerArray states;
+        private final AtomicReferenceArray<Future<?>> tasks;
+        private final AtomicReferenceArray<Item> loaded;
+        // Guarded by loaded
+        private final boolean[] pagesLoaded;
+        private final Item[] processed;
+        private final String[] failures;
+        private final AtomicInteger remaining;
+        private final CompletableFuture<ProcessingResult> result = new CompletableFuture<>();
+        private volatile ScheduledFuture<?> deadline;
+        private volatile Future<?> feed;
+        private long deadlineAt;
+        private volatile boolean cancelled;
+        private volatile boolean timedOut;
+
+        private ProcessingRun(List<ItemPriority> items) {
+            this.itemIds = items.stream().map(ItemPriority::id).toList();
+            this.priorities = items.stream().mapToInt(ItemPriority::priority).toArray();
+            this.states = new AtomicIntegerArray(itemIds.size());
+            this.tasks = new AtomicReferenceArray<>(itemIds.size());
+            this.loaded = new AtomicReferenceArray<>(itemIds.size());
+            this.pagesLoaded = new boolean[(itemIds.size() + PAGE_SIZE - 1) / PAGE_SIZE];
+            this.processed = new Item[itemIds.size()];
+            this.failures = new String[itemIds.size()];
+            this.remaining = new AtomicInteger(itemIds.size());
+        }
+
+        private void start() {
+            if (this.itemIds.isEmpty()) {
+                finish();
+                return;
+            }
+            this.deadlineAt = System.nanoTime() + properties.timeout().toNanos();
+            try {
+                this.deadline = timeoutScheduler.schedule(() -> stop(false),
+                        properties.timeout().toMillis(), TimeUnit.MILLISECONDS);
+                this.feed = feeder.submit(this::feed);
+            } catch (RejectedExecutionException e) {
+                for (int index = 0; index < this.itemIds.size(); index++) {
+                    fail(index, PENDING, SHUTTING_DOWN);
+                }
+            }
+        }
+
+        private void feed() {
+            for (int i = 0; i < this.itemIds.size() && !this.result.isDone(); i++) {
+                int index = i;
+                if (this.states.get(index) != PENDING) {
+                    continue;
+                }
+                Future<?> task;
+                try {
+                    task = scheduler.submit(this.priorities[index], () -> run(index),
+                            () -> fail(index, PENDING, SHUTTING_DOWN),
+                            Math.max(0L, this.deadlineAt - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    // The run was stopped while waiting for room in the queue
+                    return;
+                }
+                if (task == null) {
+                    // The queue stayed full until the deadline, which reports the rest as not started
+                    return;
+                }
+                this.tasks.set(index, task);
+            }
+        }
+
+        /**
+         * The item's copy from its page, loading the page if it was not loaded yet.
+         * Null if the item has to be read on its own.
+         */
+        private Item take(int index) {
+            int page = index / PAGE_SIZE;
+            synchronized (this.loaded) {
+                if (!this.pagesLoaded[page]) {
+                    this.pagesLoaded[page] = true;
+                    load(page * PAGE_SIZE);
+                }
+            }
+            return this.loaded.getAndSet(index, null);
+        }
+
+        private void load(int from) {
+            if (circuitBreaker.state() != CircuitBreaker.State.CLOSED) {
+                return;
+            }
+            List<Long> page = this.itemIds.subList(from, Math.min(from + PAGE_SIZE, this.itemIds.size()));
+            Map<Long, Item> items = new HashMap<>();
+            try {
+                itemRepository.findAllById(page).forEach(item -> items.put(item.getId(), item));
+            } catch (Exception e) {
+                log.debug("Could not load items {} to {}, they are read one by one", page.get(0),
+                        page.get(page.size() - 1), e);
+                return;
+            }
+            for (int i = 0; i < page.size(); i++) {
+                this.loaded.set(from + i, items.get(page.get(i)));
+            }
+        }
+
+        private void run(int index) {
+            if (!this.states.compareAndSet(index, PENDING, RUNNING)) {
+                return;
+            }
+            String timedOutReason = "timed out after " + properties.itemTimeout();
+            long itemDeadline = System.nanoTime() + properties.itemTimeout().toNanos();
+            ScheduledFuture<?> watchdog = timeoutScheduler.schedule(() -> interrupt(index, timedOutReason),
+                    properties.itemTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            WriteGuard guard = new WriteGuard() {
+                @Override
+                public boolean begin() {
+                    return states.compareAndSet(index, RUNNING, WRITING);
+                }
+
+                @Override
+                public void abort() {
+                    if (!states.compareAndSet(index, WRITING, RUNNING)) {
+                        return;
+                    }
+                    // Whatever fired while the write was in flight takes effect now.
+                    if (cancelled || timedOut) {
+                        interrupt(index, cancelled ? "cancelled" : "run deadline exceeded");
+                    } else if (System.nanoTime() - itemDeadline >= 0) {
+                        interrupt(index, timedOutReason);
+                    }
+                }
+            };
+            try {
+                Item item = processWithRetry(this.itemIds.get(index), take(index), guard);
+                if (this.states.compareAndSet(index, WRITING, SUCCEEDED)) {
+                    this.processed[index] = item;
+                    countDown();
+                }
+            } catch (InterruptedException e) {
+                fail(index, RUNNING, "interrupted");
+            } catch (Exception e) {
+                fail(index, RUNNING, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            } finally {
+                watchdog.cancel(false);
+            }
+        }
+
+        private boolean stop(boolean byCancel) {
+            if (this.result.isDone()) {
+                return false;
+            }
+            if (byCancel) {
+                this.cancelled = true;
+            } else {
+                this.timedOut = true;
+            }
+            String reason = byCancel ? "cancelled" : "run deadline exceeded";
+            Future<?> feeding = this.feed;
+            if (feeding != null) {
+                feeding.cancel(true);
+            }
+            for (int index = 0; index < this.itemIds.size(); index++) {
+                if (this.states.compareAndSet(index, PENDING, SKIPPED)) {
+                    Future<?> task = this.tasks.get(index);
+                    if (task != null) {
+                        task.cancel(false);
+                    }
+                    countDown();
+                } else {
+                    interrupt(index, reason);
+                }
+            }
+            return true;
+        }
+
+        private void interrupt(int index, String reason) {
+            if (fail(index, RUNNING, reason)) {
+                Future<?> task = this.tasks.get(index);
+                if (task != null) {
+                    task.cancel(true);
+                }
+            }
+        }
+
+        private boolean fail(int index, int expectedState, String reason) {
+            if (!this.states.compareAndSet(index, expectedState, FAILED)) {
+                return false;
+            }
+            this.failures[index] = reason;
+            countDown();
+            return true;
+        }
+
+        private void countDown() {
+            if (this.remaining.decrementAndGet() == 0) {
+                finish();
+            }
+        }
+
+        private void finish() {
+            ScheduledFuture<?> runDeadline = this.deadline;
+            if (runDeadline != null) {
+                runDeadline.cancel(false);
+            }
+            List<Item> processedItems = new ArrayList<>();
+            Map<Long, String> failedItems = new LinkedHashMap<>();
+            List<Long> notStarted = new ArrayList<>();
+            for (int index = 0; index < this.itemIds.size(); index++) {
+                switch (this.states.get(index)) {
+                    case SUCCEEDED -> processedItems.add(this.processed[index]);
+                    case FAILED -> failedItems.put(this.itemIds.get(index), this.failures[index]);
+                    default -> notStarted.add(this.itemIds.get(index));
+                }
+            }
+            this.result.complete(new ProcessingResult(processedItems, failedItems, notStarted,
+                    this.cancelled, this.timedOut));
+        }
+
+    }
+
+    private record HeldDeadLetter(int attempts, RuntimeException failure) {
+    }
+
+    /**
+     * Marks the write of an item's result, so a run reports it only once and never interrupts it mid-write.
+     */
+    private interface WriteGuard {
+
+        WriteGuard NONE = new WriteGuard() {
+            @Override
+            public boolean begin() {
+                return true;
+            }
+
+            @Override
+            public void abort() {
+            }
+        };
+
+        /**
+         * @return false if the item was already reported as failed and must not be written
+         */
+        boolean begin();
+
+        /**
+         * The write failed, the item can time out or be stopped again.
+         */
+        void abort();
+    }
+
+}
@@ -0,0 +1,337 @@
+package com.siemens.internship.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.repositories.IItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional in-memory copy of all items used to answer reads without a database round trip.
+ * Items are kept column-wise in an open addressing table keyed by the primitive id
+ * (linear probing, backward shift deletion) and status values are stored once in a dictionary; once it holds
+ * {@link Short#MAX_VALUE} statuses, further ones are kept as they are per item.
+ * Change events can arrive out of order, so an event older than the stored version of its item is ignored.
+ * The table is loaded when the application is ready, from the items the {@link ItemJournal} restored into the
+ * database if it did so and page by page from the database otherwise, and then follows {@link ItemChangedEvent}s.
+ */
+@Service
+public class ItemReadModel {
+
+    private static final long EMPTY = 0L;
+    // Status code of an item whose status is kept in the uncommon statuses column.
+    private static final short UNCOMMON_STATUS = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final IItemRepository itemRepository;
+    private final ItemJournal journal;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<String> statuses = new ArrayList<>(Collections.singletonList(null));
+    private final Map<String, Short> statusCodes = new HashMap<>();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private String[] emails = new String[INITIAL_CAPACITY];
+    private short[] statusIndex = new short[INITIAL_CAPACITY];
+    private String[] uncommonStatuses = new String[INITIAL_CAPACITY];
+    private int[] priorities = new int[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private int size;
+
+    private Set<Long> deletedWhileLoading;
+    private volatile boolean ready;
+
+    public ItemReadModel(IItemRepository itemRepository, ItemJournal journal,
+            @Value("${items.read-model.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.journal = journal;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return this.ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!this.enabled) {
+            return;
+        }
+        this.lock.writeLock().lock();
+        try {
+            this.deletedWhileLoading = new HashSet<>();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+
+        Optional<Collection<Item>> restored = this.journal.takeRestored();
+        if (restored.isPresent()) {
+            loadItems(restored.get());
+        } else {
+            Page<Item> page;
+            int pageNumber = 0;
+            do {
+                page = this.itemRepository.findAll(PageRequest.of(pageNumber++, LOAD_PAGE_SIZE, Sort.by("id")));
+                loadItems(page.getContent());
+            } while (page.hasNext());
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            this.deletedWhileLoading = null;
+            this.ready = true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private void loadItems(Collection<Item> items) {
+        this.lock.writeLock().lock();
+        try {
+            // Rows already written by change events are newer than the loaded ones.
+            for (Item item : items) {
+                if (find(item.getId()) < 0 && !this.deletedWhileLoading.contains(item.getId())) {
+                    put(item);
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        if (!this.enabled || event.id() == null) {
+            return;
+        }
+        this.lock.writeLock().lock();
+        try {
+            if (event.type() == ItemChangeType.DELETED) {
+                remove(event.id());
+                if (this.deletedWhileLoading != null) {
+                    this.deletedWhileLoading.add(event.id());
+                }
+            } else {
+                int slot = find(event.id());
+                long version = event.item().getVersion() == null ? 0L : event.item().getVersion();
+                if (slot < 0 || version >= this.versions[slot]) {
+                    put(event.item());
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Item> findById(Long id) {
+        this.lock.readLock().lock();
+        try {
+            int slot = id == null ? -1 : find(id);
+            return slot < 0 ? Optional.empty() : Optional.of(materialize(slot));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    public List<Item> findAll() {
+        List<Item> items;
+        this.lock.readLock().lock();
+        try {
+            items = new ArrayList<>(this.size);
+            for (int slot = 0; slot < this.ids.length; slot++) {
+                if (this.ids[slot] != EMPTY) {
+                    items.add(materialize(slot));
+                }
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        items.sort(Comparator.comparing(Item::getId));
+        return items;
+    }
+
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.size;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private Item materialize(int slot) {
+        Item item = new Item();
+        item.setId(this.ids[slot]);
+        item.setName(this.names[slot]);
+        item.setDescription(this.descriptions[slot]);
+        short status = this.statusIndex[slot];
+        item.setStatus(status == UNCOMMON_STATUS ? this.uncommonStatuses[slot] : this.statuses.get(status));
+        item.setEmail(this.emails[slot]);
+        item.setPriority(this.priorities[slot]);
+        item.setVersion(this.versions[slot]);
+        return item;
+    }
+
+    private void put(Item item) {
+        long id = item.getId();
+        if (id == EMPTY) {
+            throw new IllegalArgumentException("Item id 0 cannot be stored in the read model");
+        }
+        int slot = find(id);
+        if (slot < 0) {
+            if ((this.size + 1) * 4L > this.ids.length * 3L) {
+                resize(this.ids.length * 2);
+            }
+            slot = probe(id);
+            this.ids[slot] = id;
+            this.size++;
+        }
+        this.names[slot] = item.getName();
+        this.descriptions[slot] = item.getDescription();
+        this.emails[slot] = item.getEmail();
+        short status = statusCode(item.getStatus());
+        this.statusIndex[slot] = status;
+        this.uncommonStatuses[slot] = status == UNCOMMON_STATUS ? item.getStatus() : null;
+        this.priorities[slot] = item.getPriority();
+        this.versions[slot] = item.getVersion() == null ? 0L : item.getVersion();
+    }
+
+    private void remove(long id) {
+        int hole = find(id);
+        if (hole < 0) {
+            return;
+        }
+        int mask = this.ids.length - 1;
+        int next = hole;
+        while (true) {
+            next = (next + 1) & mask;
+            long key = this.ids[next];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = hash(key) & mask;
+            boolean movable = next > hole ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (movable) {
+                moveSlot(next, hole);
+                hole = next;
+            }
+        }
+        clearSlot(hole);
+        this.size--;
+    }
+
+    private int find(long id) {
+        int mask = this.ids.length - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            long key = this.ids[slot];
+            if (key == id) {
+                return slot;
+            }
+            if (key == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    private int probe(long id) {
+        int mask = this.ids.length - 1;
+        int slot = hash(id) & mask;
+        while (this.ids[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] oldIds = this.ids;
+        String[] oldNames = this.names;
+        String[] oldDescriptions = this.descriptions;
+        String[] oldEmails = this.emails;
+        short[] oldStatusIndex = this.statusIndex;
+        String[] oldUncommonStatuses = this.uncommonStatuses;
+        int[] oldPriorities = this.priorities;
+        long[] oldVersions = this.versions;
+
+        this.ids = new long[capacity];
+        this.names = new String[capacity];
+        this.descriptions = new String[capacity];
+        this.emails = new String[capacity];
+        this.statusIndex = new short[capacity];
+        this.uncommonStatuses = new String[capacity];
+        this.priorities = new int[capacity];
+        this.versions = new long[capacity];
+
+        for (int oldSlot = 0; oldSlot < oldIds.length; oldSlot++) {
+            if (oldIds[oldSlot] != EMPTY) {
+                int slot = probe(oldIds[oldSlot]);
+                this.ids[slot] = oldIds[oldSlot];
+                this.names[slot] = oldNames[oldSlot];
+                this.descriptions[slot] = oldDescriptions[oldSlot];
+                this.emails[slot] = oldEmails[oldSlot];
+                this.statusIndex[slot] = oldStatusIndex[oldSlot];
+                this.uncommonStatuses[slot] = oldUncommonStatuses[oldSlot];
+                this.priorities[slot] = oldPriorities[oldSlot];
+                this.versions[slot] = oldVersions[oldSlot];
+            }
+        }
+    }
+
+    private void moveSlot(int from, int to) {
+        this.ids[to] = this.ids[from];
+        this.names[to] = this.names[from];
+        this.descriptions[to] = this.descriptions[from];
+        this.emails[to] = this.emails[from];
+        this.statusIndex[to] = this.statusIndex[from];
+        this.uncommonStatuses[to] = this.uncommonStatuses[from];
+        this.priorities[to] = this.priorities[from];
+        this.versions[to] = this.versions[from];
+    }
+
+    private void clearSlot(int slot) {
+        this.ids[slot] = EMPTY;
+        this.names[slot] = null;
+        this.descriptions[slot] = null;
+        this.emails[slot] = null;
+        this.statusIndex[slot] = 0;
+        this.uncommonStatuses[slot] = null;
+        this.priorities[slot] = 0;
+        this.versions[slot] = 0L;
+    }
+
+    private short statusCode(String status) {
+        if (status == null) {
+            return 0;
+        }
+        Short code = this.statusCodes.get(status);
+        if (code == null) {
+            if (this.statuses.size() > Short.MAX_VALUE) {
+                return UNCOMMON_STATUS;
+            }
+            code = (short) this.statuses.size();
+            this.statuses.add(status);
+            this.statusCodes.put(status, code);
+        }
+        return code;
+    }
+
+    private static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+}
@@ -1,51 +1,68 @@
 package com.siemens.internship.services;
 
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
 import com.siemens.internship.exceptions.ServiceException;
 import com.siemens.internship.exceptions.SourceNotFoundException;
 import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ProcessingResult;
 import com.siemens.internship.repositories.IItemRepository;
 
 import java.util.List;
-import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemService implements IItemService {
 
     private final IItemRepository itemRepository;
-    private final ExecutorService executorService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemReadModel readModel;
+    private final ItemProcessor itemProcessor;
+    private final StatusWriteBuffer statusBuffer;
 
-    public ItemService(IItemRepository itemRepository) {
+    public ItemService(IItemRepository itemRepository, ApplicationEventPublisher eventPublisher,
+            ItemReadModel readModel, ItemProcessor itemProcessor, StatusWriteBuffer statusBuffer) {
         this.itemRepository = itemRepository;
-        this.executorService = Executors.newFixedThreadPool(10); // Create a thread pool with 10 threads
+        this.eventPublisher = eventPublisher;
+        this.readModel = readModel;
+        this.itemProcessor = itemProcessor;
+        this.statusBuffer = statusBuffer;
     }
 
     @Override
     public List<Item> findAll() {
-        try {
-            return this.itemRepository.findAll();
-        } catch (Exception e) {
-            throw new ServiceException("Error retrieving items", e);
+        List<Item> items;
+        if (this.readModel.isReady()) {
+            items = this.readModel.findAll();
+        } else {
+            try {
+                items = this.itemRepository.findAll();
+            } catch (Exception e) {
+                throw new ServiceException("Error retrieving items", e);
+            }
         }
+        return this.statusBuffer.isEnabled() ? this.statusBuffer.overlay(items) : items;
 
     }
 
     @Override
     public Item findById(Long id) {
-        return itemRepository.findById(id)
-                .orElseThrow(() -> new SourceNotFoundException("id " + id + " not found"));
+        Optional<Item> item = this.readModel.isReady() ? this.readModel.findById(id) : itemRepository.findById(id);
+        Item found = item.orElseThrow(() -> new SourceNotFoundException("id " + id + " not found"));
+        return this.statusBuffer.isEnabled() ? this.statusBuffer.overlay(found) : found;
     }
 
     @Override
     public Item save(Item item) {
-        try {
-            return itemRepository.save(item);
-        } catch (Exception e) {
-            throw new ServiceException("Error saving item", e);
+        boolean created = item.getId() == null;
+        if (!created && this.statusBuffer.isEnabled()) {
+            return this.statusBuffer.writeThrough(item.getId(), () -> persist(item, false));
         }
+        return persist(item, created);
 
     }
 
@@ -55,49 +72,48 @@ public class ItemService implements IItemService {
             if (!this.itemRepository.existsById(id)) {
                 throw new SourceNotFoundException("id " + id + " not found");
             }
+            this.statusBuffer.discard(id);
             itemRepository.deleteById(id);
         } catch (Exception e) {
             throw new ServiceException("Error deleting item with id: " + id, e);
         }
+        this.eventPublisher.publishEvent(ItemChangedEvent.deleted(id));
+
+    }
+
+    @Override
+    public Item updateStatus(Long id, String status) {
+        if (this.statusBuffer.isEnabled()) {
+            return this.statusBuffer.updateStatus(id, status, ItemChangeType.UPDATED);
+        }
+        Item item = findById(id);
+        item.setStatus(status);
+        return save(item);
+    }
 
+    @Override
+    public CompletableFuture<ProcessingResult> processItemsAsync(Integer minPriority, String runId) {
+        return this.itemProcessor.processAll(minPriority, runId);
     }
 
     @Override
-    @Async
-    public CompletableFuture<List<Item>> processItemsAsync() {
+    public boolean cancelProcessing(String runId) {
+        return this.itemProcessor.cancel(runId);
+    }
+
+    private Item persist(Item item, boolean created) {
+        Item saved;
         try {
-            List<Long> itemIds = itemRepository.findAllIds();
-
-            List<CompletableFuture<Item>> futures = itemIds.stream()
-                    .map(id -> CompletableFuture.supplyAsync(() -> {
-                        try {
-                            Thread.sleep(100);
-                            Item item = itemRepository.findById(id)
-                                    .orElseThrow(
-                                            () -> new SourceNotFoundException("id " + id + " not found"));
-
-                            item.setStatus("PROCESSED");
-                            return itemRepository.save(item);
-                        } catch (InterruptedException e) {
-                            throw new CompletionException("Processing interrupted", e);
-                        } catch (Exception e) {
-                            throw new CompletionException("Error processing item with id: " + id, e);
-                        }
-                    }, executorService))
-                    .collect(Collectors.toList());
-
-            return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                    .thenApply(v -> futures.stream()
-                            .map(CompletableFuture::join)
-                            .collect(Collectors.toList()))
-                    .exceptionally(ex -> {
-                        throw new ServiceException("Error processing items: " + ex.getMessage(), ex);
-                    });
+            saved = itemRepository.save(item);
         } catch (Exception e) {
-            CompletableFuture<List<Item>> failedFuture = new CompletableFuture<>();
-            failedFuture.completeExceptionally(new ServiceException("Error initiating async processing"));
-            return failedFuture;
+            throw new ServiceException("Error saving item", e);
         }
+        publish(created ? ItemChangeType.CREATED : ItemChangeType.UPDATED, saved);
+        return saved;
+    }
+
+    private void publish(ItemChangeType type, Item item) {
+        this.eventPublisher.publishEvent(new ItemChangedEvent(type, item.getId(), item));
     }
 
 }
@@ -0,0 +1,141 @@
+package com.siemens.internship.services;
+
+import com.siemens.internship.config.ProcessingProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded priority queue in front of the processing pool. Work is handed to the executor only when a worker is
+ * free, so the executor's own FIFO queue stays empty and the order is decided here.
+ * Waiting work ages: every {@code agingInterval} spent in the queue counts as one extra priority level,
+ * so low priority work is never starved. Because every task ages at the same rate the ordering key
+ * {@code priority - enqueueTime / agingInterval} is fixed at enqueue time and the heap stays valid.
+ */
+class ProcessingScheduler {
+
+    private final Executor executor;
+    private final Semaphore workers;
+    private final Semaphore capacity;
+    private final double agingIntervalNanos;
+    private final long epoch = System.nanoTime();
+    private final AtomicLong sequence = new AtomicLong();
+    private final PriorityBlockingQueue<Task> queue = new PriorityBlockingQueue<>();
+
+    ProcessingScheduler(Executor executor, int workers, ProcessingProperties.Queue properties) {
+        this.executor = executor;
+        this.workers = new Semaphore(workers);
+        // Fair, so runs waiting for room take turns and priority decides among what got in.
+        this.capacity = new Semaphore(properties.capacity(), true);
+        this.agingIntervalNanos = Math.max(1L, properties.agingInterval().toNanos());
+    }
+
+    Future<?> submit(int priority, Runnable work, long timeout, TimeUnit unit) throws InterruptedException {
+        return submit(priority, work, () -> { }, timeout, unit);
+    }
+
+    /**
+     * Queues the work, waiting up to the timeout for room in the queue.
+     * If the executor refuses the work because it is shutting down, the work is cancelled and
+     * {@code onRejected} runs instead.
+     *
+     * @return a future that cancels or interrupts the work, or null if the queue stayed full
+     */
+    Future<?> submit(int priority, Runnable work, Runnable onRejected, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (!this.capacity.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        double rank = priority - (System.nanoTime() - this.epoch) / this.agingIntervalNanos;
+        Task task = new Task(work, onRejected, rank, this.sequence.getAndIncrement());
+        this.queue.add(task);
+        dispatch();
+        return task;
+    }
+
+    int queued() {
+        return this.queue.size();
+    }
+
+    /**
+     * Drops cancelled work from the queue and frees its capacity.
+     */
+    void purge() {
+        List<Task> drained = new ArrayList<>();
+        this.queue.drainTo(drained);
+        for (Task task : drained) {
+            if (task.isCancelled()) {
+                this.capacity.release();
+            } else {
+                this.queue.add(task);
+            }
+        }
+        dispatch();
+    }
+
+    private void dispatch() {
+        while (this.workers.tryAcquire()) {
+            Task task = this.queue.poll();
+            if (task == null) {
+                this.workers.release();
+                // Work queued after the poll but before the release would otherwise wait for the next completion
+                if (this.queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            this.capacity.release();
+            if (task.isCancelled()) {
+                this.workers.release();
+                continue;
+            }
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        this.workers.release();
+                        dispatch();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                this.workers.release();
+                // The executor is shut down, nothing still queued will ever run.
+                List<Task> rejected = new ArrayList<>();
+                rejected.add(task);
+                this.queue.drainTo(rejected);
+                this.capacity.release(rejected.size() - 1);
+                for (Task each : rejected) {
+                    if (each.cancel(false)) {
+                        each.onRejected.run();
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    private static final class Task extends FutureTask<Void> implements Comparable<Task> {
+
+        private final Runnable onRejected;
+        private final double rank;
+        private final long sequence;
+
+        private Task(Runnable work, Runnable onRejected, double rank, long sequence) {
+            super(work, null);
+            this.onRejected = onRejected;
+            this.rank = rank;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byRank = Double.compare(other.rank, this.rank);
+            return byRank != 0 ? byRank : Long.compare(this.sequence, other.sequence);
+        }
+
+    }
+
+}
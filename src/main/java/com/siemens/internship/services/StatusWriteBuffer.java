@@ -0,0 +1,260 @@
+package com.siemens.internship.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.exceptions.ServiceException;
+import com.siemens.internship.exceptions.SourceNotFoundException;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.repositories.IItemRepository;
+
+import jakarta.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Optional write-behind buffer for item status changes, and the single place that orders writes to an item
+ * while the buffer is enabled.
+ * Pending statuses are kept per id, a later status replaces an earlier one, and the buffer is written in one
+ * JDBC batch when it reaches the size limit, on the flush interval and on shutdown.
+ * Every buffered change counts as one version, so the version readers see matches the one the flush writes.
+ *
+ * Status changes, full updates ({@link #writeThrough}) and discards of the same item are serialized on a lock
+ * stripe, and a full update writes the item's buffered status first. No other writer in the application can
+ * therefore move the row's version while a status is pending. If the row changed anyway, the flush finds it at a
+ * different version. It then writes the buffered status on top with a version above every version already
+ * published, and publishes the stored item so listeners catch up with the database.
+ * Lock order: the flush lock (this) before a stripe.
+ */
+@Service
+public class StatusWriteBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusWriteBuffer.class);
+
+    private static final String UPDATE_SQL = "UPDATE items SET status = ?, version = ? WHERE id = ? AND version = ?";
+    private static final String VERSION_SQL = "SELECT version FROM items WHERE id = ?";
+    private static final int STRIPES = 64;
+    private static final int MERGE_ATTEMPTS = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int maxPending;
+    private final Map<Long, PendingStatus> pending = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+
+    public StatusWriteBuffer(JdbcTemplate jdbcTemplate, IItemRepository itemRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${items.write-behind.enabled:false}") boolean enabled,
+            @Value("${items.write-behind.max-pending:1000}") int maxPending) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.itemRepository = itemRepository;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        for (int i = 0; i < STRIPES; i++) {
+            this.stripes[i] = new Object();
+        }
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Buffers a new status for the item and publishes the item as it will be stored.
+     *
+     * @throws SourceNotFoundException if the item does not exist
+     */
+    public Item updateStatus(Long id, String status, ItemChangeType type) {
+        return updateStatus(id, () -> this.itemRepository.findById(id)
+                .orElseThrow(() -> new SourceNotFoundException("id " + id + " not found")), status, type);
+    }
+
+    /**
+     * Like {@link #updateStatus(Long, String, ItemChangeType)}, on a copy the caller has already read.
+     * A stale copy costs no correctness: the flush finds the row at another version and merges as described above.
+     */
+    public Item updateStatus(Item item, String status, ItemChangeType type) {
+        return updateStatus(item.getId(), () -> item, status, type);
+    }
+
+    private Item updateStatus(Long id, Supplier<Item> read, String status, ItemChangeType type) {
+        Item updated;
+        synchronized (stripe(id)) {
+            Item current = overlay(read.get());
+            PendingStatus buffered = this.pending.compute(id, (key, existing) -> existing == null
+                    ? new PendingStatus(status, current.getVersion() == null ? 0L : current.getVersion(), 1)
+                    : new PendingStatus(status, existing.baseVersion(), existing.writes() + 1));
+            updated = withStatus(current, buffered);
+            this.eventPublisher.publishEvent(new ItemChangedEvent(type, id, updated));
+        }
+        if (this.pending.size() >= this.maxPending) {
+            flush();
+        }
+        return updated;
+    }
+
+    /**
+     * Runs a full write of the item after writing its buffered status, with no status change in between.
+     */
+    public <T> T writeThrough(Long id, Supplier<T> write) {
+        Object stripe = stripe(id);
+        synchronized (stripe) {
+            if (!this.pending.containsKey(id)) {
+                return write.get();
+            }
+        }
+        synchronized (this) {
+            synchronized (stripe) {
+                PendingStatus buffered = this.pending.get(id);
+                if (buffered != null) {
+                    try {
+                        write(List.of(Map.entry(id, buffered)));
+                    } catch (RuntimeException e) {
+                        throw new ServiceException("Error writing buffered status of item " + id, e);
+                    }
+                }
+                return write.get();
+            }
+        }
+    }
+
+    /**
+     * The item as it will be once its buffered status is written, as a copy.
+     */
+    public Item overlay(Item item) {
+        PendingStatus status = this.pending.get(item.getId());
+        return status == null ? item : withStatus(item, status);
+    }
+
+    public List<Item> overlay(List<Item> items) {
+        if (this.pending.isEmpty()) {
+            return items;
+        }
+        List<Item> overlaid = new ArrayList<>(items.size());
+        for (Item item : items) {
+            overlaid.add(overlay(item));
+        }
+        return overlaid;
+    }
+
+    public void discard(Long id) {
+        synchronized (stripe(id)) {
+            this.pending.remove(id);
+        }
+    }
+
+    public int size() {
+        return this.pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${items.write-behind.flush-interval-ms:200}")
+    public void flushOnInterval() {
+        if (this.enabled) {
+            flush();
+        }
+    }
+
+    public synchronized int flush() {
+        if (this.pending.isEmpty()) {
+            return 0;
+        }
+        return write(new ArrayList<>(this.pending.entrySet()));
+    }
+
+    @PreDestroy
+    public void close() {
+        if (this.enabled) {
+            flush();
+        }
+    }
+
+    private int write(List<Map.Entry<Long, PendingStatus>> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (Map.Entry<Long, PendingStatus> entry : batch) {
+            PendingStatus status = entry.getValue();
+            rows.add(new Object[] { status.status(), status.version(), entry.getKey(), status.baseVersion() });
+        }
+        int[] counts = this.jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+
+        int written = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            Long id = batch.get(i).getKey();
+            PendingStatus flushed = batch.get(i).getValue();
+            synchronized (stripe(id)) {
+                if (counts[i] == 0) {
+                    if (merge(id)) {
+                        written++;
+                    }
+                    continue;
+                }
+                written++;
+                // Changes buffered while the batch was written now build on the flushed version.
+                this.pending.computeIfPresent(id, (key, current) -> current == flushed
+                        ? null
+                        : new PendingStatus(current.status(), flushed.version(), current.writes() - flushed.writes()));
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Writes the latest buffered status over a row that changed underneath the buffer and publishes what was
+     * stored. The new version is above the stored one and every version handed out for the buffered changes,
+     * so it names a representation no one has seen. Called with the item's stripe held.
+     */
+    private boolean merge(Long id) {
+        for (int attempt = 0; attempt < MERGE_ATTEMPTS; attempt++) {
+            PendingStatus latest = this.pending.get(id);
+            if (latest == null) {
+                return false;
+            }
+            List<Long> stored = this.jdbcTemplate.queryForList(VERSION_SQL, Long.class, id);
+            if (stored.isEmpty()) {
+                // Deleted since, the delete was published by whoever made it.
+                this.pending.remove(id);
+                return false;
+            }
+            long storedVersion = stored.get(0) == null ? 0L : stored.get(0);
+            long version = Math.max(storedVersion, latest.version()) + 1;
+            if (this.jdbcTemplate.update(UPDATE_SQL, latest.status(), version, id, storedVersion) == 1) {
+                this.pending.remove(id);
+                this.itemRepository.findById(id).ifPresent(item -> this.eventPublisher
+                        .publishEvent(new ItemChangedEvent(ItemChangeType.UPDATED, id, item)));
+                return true;
+            }
+        }
+        log.warn("Item {} kept changing underneath its buffered status, retrying on the next flush", id);
+        return false;
+    }
+
+    private Object stripe(Long id) {
+        return this.stripes[Long.hashCode(id) & (STRIPES - 1)];
+    }
+
+    private static Item withStatus(Item item, PendingStatus status) {
+        return new Item(item.getId(), item.getName(), item.getDescription(), status.status(), item.getEmail(),
+                item.getPriority(), status.version());
+    }
+
+    record PendingStatus(String status, long baseVersion, int writes) {
+
+        long version() {
+            return this.baseVersion + this.writes;
+        }
+    }
+
+}
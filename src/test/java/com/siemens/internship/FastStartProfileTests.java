@@ -0,0 +1,46 @@
+package com.siemens.internship;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("fast-start")
+@ExtendWith(OutputCaptureExtension.class)
+class FastStartProfileTests {
+
+	@Autowired
+	private ConfigurableApplicationContext context;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void hotPathBeansAreEager_OthersAreLazy() {
+		assertFalse(context.getBeanFactory().getBeanDefinition("itemController").isLazyInit());
+		assertFalse(context.getBeanFactory().getBeanDefinition("itemService").isLazyInit());
+		assertTrue(context.getBeanFactory().getBeanDefinition("deadLetterController").isLazyInit());
+	}
+
+	@Test
+	void servesFirstRequest_WithoutCreatingLazyBeans(CapturedOutput output) throws Exception {
+		mockMvc.perform(get("/api/items")).andExpect(status().isOk());
+
+		assertTrue(context.getBeanFactory().containsSingleton("itemController"));
+		assertFalse(context.getBeanFactory().containsSingleton("deadLetterController"));
+		assertTrue(output.getOut().contains("First request (GET /api/items) served"));
+	}
+
+}
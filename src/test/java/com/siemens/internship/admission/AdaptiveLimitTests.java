@@ -0,0 +1,94 @@
+package com.siemens.internship.admission;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class AdaptiveLimitTests {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private static void fill(AdaptiveLimit limit) {
+        while (limit.tryAcquire()) {
+            // take every permit so samples count as load
+        }
+    }
+
+    @Test
+    void tryAcquire_RejectsOverLimit() {
+        // Arrange
+        AdaptiveLimit limit = new AdaptiveLimit(2, 1, 10);
+
+        // Act & Assert
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(1, limit.snapshot().rejected());
+        assertEquals(2, limit.snapshot().inFlight());
+    }
+
+    @Test
+    void release_GrowsLimit_WhileLatencyStaysAtBaseline() {
+        // Arrange
+        AdaptiveLimit limit = new AdaptiveLimit(4, 1, 100);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            fill(limit);
+            limit.release(10 * MILLIS, false);
+            limit.release(10 * MILLIS, false);
+        }
+
+        // Assert
+        assertTrue(limit.limit() > 4);
+    }
+
+    @Test
+    void release_ShrinksLimit_WhenLatencyRises() {
+        // Arrange
+        AdaptiveLimit limit = new AdaptiveLimit(50, 1, 100);
+        fill(limit);
+        limit.release(10 * MILLIS, false);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            fill(limit);
+            limit.release(100 * MILLIS, false);
+        }
+
+        // Assert
+        assertTrue(limit.limit() < 50);
+    }
+
+    @Test
+    void release_ShrinksLimit_WhenRequestsFail() {
+        // Arrange
+        AdaptiveLimit limit = new AdaptiveLimit(20, 1, 100);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(10 * MILLIS, true);
+        }
+
+        // Assert
+        assertTrue(limit.limit() < 20);
+        assertTrue(limit.limit() >= 1);
+    }
+
+    @Test
+    void release_KeepsLimit_WhenMostlyIdle() {
+        // Arrange
+        AdaptiveLimit limit = new AdaptiveLimit(20, 1, 100);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(500 * MILLIS, false);
+        }
+
+        // Assert
+        assertEquals(20, limit.limit());
+    }
+
+}
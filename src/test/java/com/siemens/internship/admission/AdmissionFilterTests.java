@@ -0,0 +1,86 @@
+package com.siemens.internship.admission;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class AdmissionFilterTests {
+
+    private static AdmissionFilter filter(int writesLimit) {
+        return new AdmissionFilter(true, 20, 200, writesLimit, writesLimit, 1, 1, 3);
+    }
+
+    @Test
+    void classify_SeparatesReadsWritesAndProcessing() {
+        assertEquals(AdmissionFilter.EndpointClass.READS,
+                AdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/items/1")));
+        assertEquals(AdmissionFilter.EndpointClass.WRITES,
+                AdmissionFilter.classify(new MockHttpServletRequest("POST", "/api/items")));
+        assertEquals(AdmissionFilter.EndpointClass.PROCESS,
+                AdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/items/process")));
+        assertEquals(AdmissionFilter.EndpointClass.WRITES,
+                AdmissionFilter.classify(new MockHttpServletRequest("POST", "/api/items/process/run-1/cancel")));
+        assertNull(AdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/items/changes")));
+        assertNull(AdmissionFilter.classify(new MockHttpServletRequest("GET", "/api/diagnostics/hibernate")));
+    }
+
+    @Test
+    void doFilter_RejectsWithRetryAfter_WhenClassIsAtLimit() throws Exception {
+        // Arrange
+        AdmissionFilter filter = filter(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServlet blocking = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> first = executor.submit(() -> {
+                filter.doFilter(new MockHttpServletRequest("PUT", "/api/items/1"), new MockHttpServletResponse(),
+                        new MockFilterChain(blocking));
+                return null;
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // Act
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("DELETE", "/api/items/1"), rejected, new MockFilterChain());
+            MockHttpServletResponse read = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/items/1"), read, new MockFilterChain());
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+
+            // Assert
+            assertEquals(503, rejected.getStatus());
+            assertEquals("3", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+            assertEquals(200, read.getStatus());
+            assertEquals(1, filter.snapshot().get(AdmissionFilter.EndpointClass.WRITES).rejected());
+            assertEquals(0, filter.snapshot().get(AdmissionFilter.EndpointClass.WRITES).inFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
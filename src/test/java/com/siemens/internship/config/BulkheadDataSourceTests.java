@@ -0,0 +1,115 @@
+package com.siemens.internship.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+public class BulkheadDataSourceTests {
+
+    private BulkheadDataSource dataSource;
+
+    private static HikariDataSource pool(String name, int maxConnections) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:bulkheads");
+        pool.setUsername("sa");
+        pool.setPoolName(name);
+        pool.setMaximumPoolSize(maxConnections);
+        pool.setConnectionTimeout(250);
+        return pool;
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.dataSource = new BulkheadDataSource(pool("interactive", 2), pool("processing", 1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.dataSource.close();
+    }
+
+    @Test
+    void getConnection_UsesProcessingPool_OnProcessingThreads() throws Exception {
+        // Arrange
+        ExecutorService processing = Executors.newSingleThreadExecutor(
+                Bulkhead.PROCESSING.threadFactory("test-processing-"));
+        try {
+            // Act
+            Future<Integer> inUse = processing.submit(() -> {
+                try (Connection connection = this.dataSource.getConnection()) {
+                    return this.dataSource.saturation().get("processing-connections").inUse();
+                }
+            });
+
+            // Assert
+            assertEquals(1, inUse.get(5, TimeUnit.SECONDS));
+            assertEquals(0, this.dataSource.saturation().get("interactive-connections").inUse());
+        } finally {
+            processing.shutdownNow();
+        }
+    }
+
+    @Test
+    void getConnection_ServesInteractiveCallers_WhileProcessingPoolIsExhausted() throws Exception {
+        // Arrange
+        ExecutorService processing = Executors.newFixedThreadPool(2,
+                Bulkhead.PROCESSING.threadFactory("test-processing-"));
+        try (Connection held = processing.submit(() -> this.dataSource.getConnection()).get(5, TimeUnit.SECONDS)) {
+            Future<Connection> starved = processing.submit(() -> this.dataSource.getConnection());
+
+            // Act
+            try (Connection interactive = this.dataSource.getConnection()) {
+
+                // Assert
+                assertTrue(interactive.isValid(1));
+            }
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> starved.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(SQLException.class, exception.getCause());
+        } finally {
+            processing.shutdownNow();
+        }
+    }
+
+    @Test
+    void dataSource_AppliesHikariSettings_AndSizesProcessingPoolToThreads() throws Exception {
+        // Arrange
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl("jdbc:h2:mem:bulkheadconfig");
+        properties.setUsername("sa");
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("spring.datasource.hikari.auto-commit", "false")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "50");
+        ProcessingProperties processing = new ProcessingProperties(6, Duration.ofSeconds(60), Duration.ofSeconds(5),
+                new ProcessingProperties.Retry(3, Duration.ofMillis(100), Duration.ofSeconds(2)),
+                new ProcessingProperties.CircuitBreaker(20, 10, 0.5, Duration.ofSeconds(10)),
+                new ProcessingProperties.Queue(100, Duration.ofSeconds(1)));
+
+        // Act
+        try (BulkheadDataSource configured = new DataSourceConfig().dataSource(properties, environment, processing,
+                10, 0, 30000);
+                Connection connection = configured.getConnection()) {
+
+            // Assert
+            assertFalse(connection.getAutoCommit());
+            assertEquals(10, configured.saturation().get("interactive-connections").capacity());
+            assertEquals(6, configured.saturation().get("processing-connections").capacity());
+        }
+    }
+
+}
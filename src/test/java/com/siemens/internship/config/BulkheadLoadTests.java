@@ -0,0 +1,97 @@
+package com.siemens.internship.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ProcessingResult;
+import com.siemens.internship.models.Saturation;
+import com.siemens.internship.services.IItemService;
+
+/**
+ * Interactive reads during a processing run that uses up its pool. The test keeps every item row locked, so each
+ * worker blocks in its update while it holds a connection and the remaining workers wait for one. Interactive
+ * reads must still get connections within the interactive pool's short connection timeout. With a single shared
+ * pool they would wait behind the blocked workers and time out.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkheadload;LOCK_TIMEOUT=20000",
+        "spring.datasource.hikari.connection-timeout=250",
+        "items.processing.threads=4",
+        "items.processing.timeout=30s",
+        "items.processing.item-timeout=30s",
+        "items.bulkheads.processing.max-connections=2",
+        "items.bulkheads.interactive.max-connections=4" })
+public class BulkheadLoadTests {
+
+    private static final int ITEMS = 20;
+    private static final int READS = 200;
+    private static final String RUN_ID = "bulkhead-load";
+
+    @Autowired
+    private IItemService itemService;
+
+    @Autowired
+    private BulkheadDataSource dataSource;
+
+    private Saturation awaitSaturatedProcessingPool() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Saturation processing = this.dataSource.saturation().get("processing-connections");
+        while (processing.inUse() < processing.capacity() || processing.waiting() == 0) {
+            assertTrue(System.nanoTime() < deadline, "processing pool never saturated: " + processing);
+            Thread.sleep(20);
+            processing = this.dataSource.saturation().get("processing-connections");
+        }
+        return processing;
+    }
+
+    @Test
+    void findById_GetsConnections_WhileProcessingPoolIsSaturated() throws Exception {
+        // Arrange
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = new Item();
+            item.setName("Load Item " + i);
+            item.setStatus("NEW");
+            item.setEmail("load@example.com");
+            ids.add(itemService.save(item).getId());
+        }
+        CompletableFuture<ProcessingResult> run;
+        try (Connection lock = this.dataSource.getConnection()) {
+            lock.setAutoCommit(false);
+            try (Statement statement = lock.createStatement()) {
+                statement.execute("SELECT id FROM items FOR UPDATE");
+            }
+            run = itemService.processItemsAsync(null, RUN_ID);
+            try {
+                Saturation processing = awaitSaturatedProcessingPool();
+
+                // Act
+                for (int i = 0; i < READS; i++) {
+                    assertNotNull(itemService.findById(ids.get(i % ids.size())));
+                }
+
+                // Assert
+                assertEquals(2, processing.capacity());
+                Saturation stillSaturated = this.dataSource.saturation().get("processing-connections");
+                assertEquals(stillSaturated.capacity(), stillSaturated.inUse());
+                assertEquals(0, this.dataSource.saturation().get("interactive-connections").waiting());
+            } finally {
+                itemService.cancelProcessing(RUN_ID);
+                lock.rollback();
+            }
+        }
+        run.get(30, TimeUnit.SECONDS);
+    }
+
+}
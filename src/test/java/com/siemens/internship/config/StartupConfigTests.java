@@ -0,0 +1,41 @@
+package com.siemens.internship.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+
+public class StartupConfigTests {
+
+    private static HibernatePropertiesCustomizer guard(String url) {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(url);
+        return StartupConfig.schemaCreationGuard(properties);
+    }
+
+    private static Map<String, Object> ddlAuto(String action) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.HBM2DDL_AUTO, action);
+        return properties;
+    }
+
+    @Test
+    void schemaCreationGuard_AllowsCreate_OnInMemoryDatabase() {
+        assertDoesNotThrow(() -> guard("jdbc:h2:mem:testdb").customize(ddlAuto("create")));
+    }
+
+    @Test
+    void schemaCreationGuard_RefusesCreate_OnSharedDatabase() {
+        HibernatePropertiesCustomizer guard = guard("jdbc:postgresql://db.internal/items");
+
+        assertThrows(IllegalStateException.class, () -> guard.customize(ddlAuto("create")));
+        assertThrows(IllegalStateException.class, () -> guard.customize(ddlAuto("create-drop")));
+        assertDoesNotThrow(() -> guard.customize(ddlAuto("validate")));
+    }
+
+}
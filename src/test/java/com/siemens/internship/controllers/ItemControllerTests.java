@@ -2,12 +2,15 @@ package com.siemens.internship.controllers;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static com.siemens.internship.support.QueryBudget.assertCallsAtMost;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
@@ -16,16 +19,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
 import com.siemens.internship.exceptions.ServiceException;
 import com.siemens.internship.exceptions.SourceNotFoundException;
 import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ProcessingResult;
 import com.siemens.internship.services.IItemService;
+import com.siemens.internship.services.IdempotencyStore;
+import com.siemens.internship.services.ItemChangeStream;
+import com.siemens.internship.services.ItemETags;
 
 @WebMvcTest(ItemController.class)
+@Import({ IdempotencyStore.class, ItemETags.class })
 public class ItemControllerTests {
 
     @Autowired
@@ -37,6 +50,12 @@ public class ItemControllerTests {
     @MockBean
     private IItemService itemService;
 
+    @MockBean
+    private ItemChangeStream changeStream;
+
+    @Autowired
+    private ItemETags eTags;
+
     private Item testItem;
     private List<Item> testItems;
 
@@ -76,6 +95,38 @@ public class ItemControllerTests {
         verify(itemService, times(1)).findAll();
     }
 
+    @Test
+    void getAllItems_ReturnsNotModified_WhenCollectionIsUnchanged() throws Exception {
+        // Arrange
+        when(itemService.findAll()).thenReturn(testItems);
+        String tag = mockMvc.perform(get("/api/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/items").header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, tag));
+
+        verify(itemService, times(1)).findAll();
+    }
+
+    @Test
+    void getAllItems_ReturnsItems_WhenCollectionChangedSinceETag() throws Exception {
+        // Arrange
+        when(itemService.findAll()).thenReturn(testItems);
+        String tag = mockMvc.perform(get("/api/items"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        eTags.onItemChanged(ItemChangedEvent.deleted(42L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/items").header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(tag)));
+
+        verify(itemService, times(2)).findAll();
+    }
+
     @Test
     void getAllItems_ReturnsBadRequest_WhenServiceThrowsException() throws Exception {
         // Arrange
@@ -119,6 +170,60 @@ public class ItemControllerTests {
         verify(itemService, times(1)).save(any(Item.class));
     }
 
+    @Test
+    void createItem_ReplaysStoredResult_WhenIdempotencyKeyIsReused() throws Exception {
+        // Arrange
+        Item inputItem = new Item();
+        inputItem.setName("Idempotent Item");
+        inputItem.setStatus("NEW");
+
+        Item savedItem = new Item();
+        savedItem.setId(7L);
+        savedItem.setName("Idempotent Item");
+        savedItem.setStatus("NEW");
+
+        when(itemService.save(any(Item.class))).thenReturn(savedItem);
+
+        // Act & Assert
+        for (String replayed : List.of("false", "true")) {
+            mockMvc.perform(post("/api/items")
+                    .header("Idempotency-Key", "create-7")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(inputItem)))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Idempotent-Replayed", replayed))
+                    .andExpect(jsonPath("$.id", is(7)));
+        }
+
+        verify(itemService, times(1)).save(any(Item.class));
+    }
+
+    @Test
+    void createItem_ReturnsUnprocessableEntity_WhenIdempotencyKeyIsReusedForDifferentItem() throws Exception {
+        // Arrange
+        Item firstItem = new Item();
+        firstItem.setName("First Item");
+        Item secondItem = new Item();
+        secondItem.setName("Second Item");
+
+        when(itemService.save(any(Item.class))).thenReturn(testItem);
+
+        mockMvc.perform(post("/api/items")
+                .header("Idempotency-Key", "create-conflict")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(firstItem)))
+                .andExpect(status().isCreated());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/items")
+                .header("Idempotency-Key", "create-conflict")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(secondItem)))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(itemService, times(1)).save(any(Item.class));
+    }
+
     @Test
     void createItem_ReturnsBadRequest_WhenInvalidItem() throws Exception {
         // Arrange - create an item with invalid email to fail validation
@@ -168,6 +273,54 @@ public class ItemControllerTests {
         verify(itemService, times(1)).findById(1L);
     }
 
+    @Test
+    void getItemById_ReturnsNotModified_WhenVersionIsUnchanged() throws Exception {
+        // Arrange
+        testItem.setVersion(3L);
+        when(itemService.findById(1L)).thenReturn(testItem);
+        mockMvc.perform(get("/api/items/1"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-3\""));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/items/1").header(HttpHeaders.IF_NONE_MATCH, "\"1-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemService, times(1)).findById(1L);
+    }
+
+    @Test
+    void getItemById_ReturnsItem_WhenItemWasUpdatedSinceETag() throws Exception {
+        // Arrange
+        Item item = new Item();
+        item.setId(3L);
+        item.setVersion(5L);
+        when(itemService.findById(3L)).thenReturn(item);
+        mockMvc.perform(get("/api/items/3"));
+        Item updated = new Item();
+        updated.setId(3L);
+        updated.setVersion(6L);
+        eTags.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, 3L, updated));
+        when(itemService.findById(3L)).thenReturn(updated);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/items/3").header(HttpHeaders.IF_NONE_MATCH, "\"3-5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-6\""));
+    }
+
+    @Test
+    void getItemById_StaysWithinServiceCallBudget() throws Exception {
+        // Arrange
+        when(itemService.findById(1L)).thenReturn(testItem);
+
+        // Act
+        mockMvc.perform(get("/api/items/1"))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertCallsAtMost(itemService, 1);
+    }
+
     @Test
     void getItemById_ReturnsNotFound_WhenItemDoesNotExist() throws Exception {
         // Arrange
@@ -207,6 +360,79 @@ public class ItemControllerTests {
         verify(itemService, times(1)).save(any(Item.class));
     }
 
+    @Test
+    void updateItem_KeepsStoredVersion() throws Exception {
+        // Arrange
+        testItem.setVersion(4L);
+        Item update = new Item();
+        update.setName("Updated Item");
+        update.setVersion(1L);
+        when(itemService.findById(1L)).thenReturn(testItem);
+        when(itemService.save(any(Item.class))).thenReturn(testItem);
+
+        // Act
+        mockMvc.perform(put("/api/items/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        // Assert
+        verify(itemService).save(argThat(item -> item.getId() == 1L && item.getVersion() == 4L));
+    }
+
+    @Test
+    void updateStatus_ReturnsUpdatedItem() throws Exception {
+        // Arrange
+        testItem.setStatus("DONE");
+        when(itemService.updateStatus(1L, "DONE")).thenReturn(testItem);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/items/1/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("DONE")));
+    }
+
+    @Test
+    void updateStatus_ReturnsBadRequest_WhenStatusIsBlank() throws Exception {
+        // Act & Assert
+        mockMvc.perform(patch("/api/items/1/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"\"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    void updateStatus_ReturnsNotFound_WhenItemDoesNotExist() throws Exception {
+        // Arrange
+        when(itemService.updateStatus(999L, "DONE")).thenThrow(new SourceNotFoundException("id 999 not found"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/items/999/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void updateItem_StaysWithinServiceCallBudget() throws Exception {
+        // Arrange
+        when(itemService.findById(1L)).thenReturn(testItem);
+        when(itemService.save(any(Item.class))).thenReturn(testItem);
+
+        // Act
+        mockMvc.perform(put("/api/items/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testItem)))
+                .andExpect(status().isOk());
+
+        // Assert - existence check plus the merge
+        assertCallsAtMost(itemService, 2);
+    }
+
     @Test
     void updateItem_ReturnsNotFound_WhenItemDoesNotExist() throws Exception {
         // Arrange
@@ -296,44 +522,117 @@ public class ItemControllerTests {
         processedItem2.setStatus("PROCESSED");
         processedItem2.setEmail("test2@example.com");
 
-        List<Item> processedItems = Arrays.asList(processedItem1, processedItem2);
+        ProcessingResult processingResult = new ProcessingResult(Arrays.asList(processedItem1, processedItem2),
+                Map.of(3L, "Source not found: id 3 not found"), List.of(4L), false, true);
 
-        CompletableFuture<List<Item>> future = CompletableFuture.completedFuture(processedItems);
-        when(itemService.processItemsAsync()).thenReturn(future);
+        CompletableFuture<ProcessingResult> future = CompletableFuture.completedFuture(processingResult);
+        when(itemService.processItemsAsync(isNull(), anyString())).thenReturn(future);
 
         // Act & Assert
         mockMvc.perform(get("/api/items/process"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].status", is("PROCESSED")))
-                .andExpect(jsonPath("$[1].status", is("PROCESSED")));
+                .andExpect(jsonPath("$.processed", hasSize(2)))
+                .andExpect(jsonPath("$.processed[0].status", is("PROCESSED")))
+                .andExpect(jsonPath("$.processed[1].status", is("PROCESSED")))
+                .andExpect(jsonPath("$.failed['3']", is("Source not found: id 3 not found")))
+                .andExpect(jsonPath("$.notStarted", contains(4)))
+                .andExpect(jsonPath("$.timedOut", is(true)));
+
+        verify(itemService, times(1)).processItemsAsync(isNull(), anyString());
+    }
+
+    @Test
+    void processItems_PassesMinPriority() throws Exception {
+        // Arrange
+        ProcessingResult processingResult = new ProcessingResult(List.of(), Map.of(), List.of(), false, false);
+        when(itemService.processItemsAsync(eq(5), anyString())).thenReturn(CompletableFuture.completedFuture(processingResult));
 
-        verify(itemService, times(1)).processItemsAsync();
+        // Act & Assert
+        mockMvc.perform(get("/api/items/process").param("minPriority", "5"))
+                .andExpect(status().isOk());
+        verify(itemService, times(1)).processItemsAsync(eq(5), anyString());
     }
 
     @Test
     void processItems_ReturnsNotFound_WhenItemsNotFound() throws Exception {
         // Arrange
-        CompletableFuture<List<Item>> future = new CompletableFuture<>();
+        CompletableFuture<ProcessingResult> future = new CompletableFuture<>();
         future.completeExceptionally(new CompletionException(new SourceNotFoundException("Items not found")));
-        when(itemService.processItemsAsync()).thenReturn(future);
+        when(itemService.processItemsAsync(isNull(), anyString())).thenReturn(future);
 
         // Act & Assert
         mockMvc.perform(get("/api/items/process"))
                 .andExpect(status().isNotFound());
-        verify(itemService, times(1)).processItemsAsync();
+        verify(itemService, times(1)).processItemsAsync(isNull(), anyString());
     }
 
     @Test
     void processItems_ReturnsInternalServerError_WhenGenericException() throws Exception {
         // Arrange
-        CompletableFuture<List<Item>> future = new CompletableFuture<>();
+        CompletableFuture<ProcessingResult> future = new CompletableFuture<>();
         future.completeExceptionally(new RuntimeException("Processing error"));
-        when(itemService.processItemsAsync()).thenReturn(future);
+        when(itemService.processItemsAsync(isNull(), anyString())).thenReturn(future);
 
         // Act & Assert
         mockMvc.perform(get("/api/items/process"))
                 .andExpect(status().isInternalServerError());
-        verify(itemService, times(1)).processItemsAsync();
+        verify(itemService, times(1)).processItemsAsync(isNull(), anyString());
+    }
+
+    @Test
+    void processItems_RunsUnderClientRunId_AndReturnsIt() throws Exception {
+        // Arrange
+        ProcessingResult processingResult = new ProcessingResult(List.of(), Map.of(), List.of(), false, false);
+        when(itemService.processItemsAsync(null, "run-1")).thenReturn(CompletableFuture.completedFuture(processingResult));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/items/process").header(ItemController.PROCESSING_RUN_HEADER, "run-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.PROCESSING_RUN_HEADER, "run-1"));
+    }
+
+    @Test
+    void processItems_ReturnsConflict_WhenRunIdIsActive() throws Exception {
+        // Arrange
+        when(itemService.processItemsAsync(null, "run-1"))
+                .thenThrow(new ServiceException("processing run run-1 is already active"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/items/process").header(ItemController.PROCESSING_RUN_HEADER, "run-1"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void cancelProcessing_ReturnsAccepted_WhenRunIsActive() throws Exception {
+        // Arrange
+        when(itemService.cancelProcessing("run-1")).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/items/process/run-1/cancel"))
+                .andExpect(status().isAccepted());
+        verify(itemService, times(1)).cancelProcessing("run-1");
+    }
+
+    @Test
+    void cancelProcessing_ReturnsNotFound_WhenRunIsNotActive() throws Exception {
+        // Arrange
+        when(itemService.cancelProcessing("run-2")).thenReturn(false);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/items/process/run-2/cancel"))
+                .andExpect(status().isNotFound());
+        verify(itemService, times(1)).cancelProcessing("run-2");
+    }
+
+    @Test
+    void streamChanges_StartsEventStream() throws Exception {
+        // Arrange
+        when(changeStream.subscribe()).thenReturn(new SseEmitter());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/items/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+        verify(changeStream, times(1)).subscribe();
+        verify(itemService, never()).findAll();
     }
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.models.Item;
+
+public class ChangeBufferTests {
+
+    private static ItemChangedEvent event(ItemChangeType type, long id, String status) {
+        Item item = new Item();
+        item.setId(id);
+        item.setStatus(status);
+        return new ItemChangedEvent(type, id, item);
+    }
+
+    @Test
+    void offer_CoalescesRepeatedUpdatesToSameId() {
+        // Arrange
+        ChangeBuffer buffer = new ChangeBuffer(10);
+
+        // Act
+        buffer.offer(event(ItemChangeType.UPDATED, 1L, "A"));
+        buffer.offer(event(ItemChangeType.UPDATED, 2L, "A"));
+        buffer.offer(event(ItemChangeType.UPDATED, 1L, "B"));
+        ChangeBuffer.Batch batch = buffer.drain();
+
+        // Assert
+        assertFalse(batch.resync());
+        assertEquals(2, batch.events().size());
+        assertEquals(1L, batch.events().get(0).id());
+        assertEquals("B", batch.events().get(0).item().getStatus());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    void offer_KeepsCreatedType_WhenCreatedItemIsUpdated() {
+        // Arrange
+        ChangeBuffer buffer = new ChangeBuffer(10);
+
+        // Act
+        buffer.offer(event(ItemChangeType.CREATED, 1L, "NEW"));
+        buffer.offer(event(ItemChangeType.PROCESSED, 1L, "PROCESSED"));
+        ChangeBuffer.Batch batch = buffer.drain();
+
+        // Assert
+        assertEquals(ItemChangeType.CREATED, batch.events().get(0).type());
+        assertEquals("PROCESSED", batch.events().get(0).item().getStatus());
+    }
+
+    @Test
+    void offer_RequestsResync_WhenCapacityIsExceeded() {
+        // Arrange
+        ChangeBuffer buffer = new ChangeBuffer(2);
+
+        // Act
+        buffer.offer(event(ItemChangeType.UPDATED, 1L, "A"));
+        buffer.offer(event(ItemChangeType.UPDATED, 2L, "A"));
+        buffer.offer(event(ItemChangeType.UPDATED, 3L, "A"));
+        buffer.offer(event(ItemChangeType.UPDATED, 4L, "A"));
+        ChangeBuffer.Batch batch = buffer.drain();
+
+        // Assert
+        assertTrue(batch.resync());
+        assertEquals(1, batch.events().size());
+        assertEquals(4L, batch.events().get(0).id());
+    }
+
+}
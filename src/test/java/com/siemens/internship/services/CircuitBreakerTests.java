@@ -0,0 +1,83 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.siemens.internship.config.ProcessingProperties;
+
+public class CircuitBreakerTests {
+
+    private static CircuitBreaker breaker(Duration openDuration) {
+        return new CircuitBreaker(new ProcessingProperties.CircuitBreaker(4, 4, 0.5, openDuration));
+    }
+
+    @Test
+    void staysClosed_BelowFailureRate() {
+        // Arrange
+        CircuitBreaker breaker = breaker(Duration.ofSeconds(30));
+
+        // Act
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void opens_WhenFailureRateIsReached() {
+        // Arrange
+        CircuitBreaker breaker = breaker(Duration.ofSeconds(30));
+
+        // Act
+        breaker.onSuccess();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void letsOneTrialThrough_AfterOpenDuration() {
+        // Arrange
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+
+        // Act & Assert
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void release_ReturnsTrialPermit_WhenCallHadNoOutcome() {
+        // Arrange
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        for (int i = 0; i < 4; i++) {
+            breaker.onFailure();
+        }
+        assertTrue(breaker.tryAcquire());
+
+        // Act
+        breaker.release();
+
+        // Assert
+        assertTrue(breaker.tryAcquire());
+    }
+
+}
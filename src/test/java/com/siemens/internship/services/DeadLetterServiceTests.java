@@ -0,0 +1,82 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import com.siemens.internship.exceptions.ServiceException;
+import com.siemens.internship.exceptions.SourceNotFoundException;
+import com.siemens.internship.models.DeadLetter;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.repositories.IDeadLetterRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class DeadLetterServiceTests {
+
+    @Mock
+    private IDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private ItemProcessor itemProcessor;
+
+    @InjectMocks
+    private DeadLetterService deadLetterService;
+
+    private DeadLetter deadLetter;
+
+    @BeforeEach
+    void setUp() {
+        deadLetter = new DeadLetter(5L, 1L, "Connection reset", 3, Instant.now());
+    }
+
+    @Test
+    void replay_ProcessesItemAndRemovesDeadLetter_WhenSuccessful() throws Exception {
+        // Arrange
+        Item processed = new Item();
+        processed.setId(1L);
+        processed.setStatus("PROCESSED");
+        when(deadLetterRepository.findById(5L)).thenReturn(Optional.of(deadLetter));
+        when(itemProcessor.processOne(1L)).thenReturn(processed);
+
+        // Act
+        Item result = deadLetterService.replay(5L);
+
+        // Assert
+        assertEquals(processed, result);
+        verify(deadLetterRepository, times(1)).delete(deadLetter);
+    }
+
+    @Test
+    void replay_KeepsDeadLetter_WhenProcessingFailsAgain() throws Exception {
+        // Arrange
+        when(deadLetterRepository.findById(5L)).thenReturn(Optional.of(deadLetter));
+        when(itemProcessor.processOne(1L)).thenThrow(new TransientDataAccessResourceException("Connection reset"));
+
+        // Act & Assert
+        ServiceException exception = assertThrows(ServiceException.class, () -> deadLetterService.replay(5L));
+
+        assertEquals("Service error: Error replaying dead letter 5", exception.getMessage());
+        verify(deadLetterRepository, never()).delete(any(DeadLetter.class));
+    }
+
+    @Test
+    void replay_ThrowsSourceNotFoundException_WhenDeadLetterDoesNotExist() throws Exception {
+        // Arrange
+        when(deadLetterRepository.findById(5L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(SourceNotFoundException.class, () -> deadLetterService.replay(5L));
+        verify(itemProcessor, never()).processOne(anyLong());
+    }
+
+}
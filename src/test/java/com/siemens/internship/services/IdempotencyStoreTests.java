@@ -0,0 +1,153 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.siemens.internship.exceptions.IdempotencyConflictException;
+
+public class IdempotencyStoreTests {
+
+    @Test
+    void execute_ReplaysStoredResult_WithoutRunningActionAgain() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(10, 60_000);
+        AtomicInteger runs = new AtomicInteger();
+
+        // Act
+        IdempotencyStore.Outcome<Integer> first = store.execute("key", "1", runs::incrementAndGet);
+        IdempotencyStore.Outcome<Integer> second = store.execute("key", "1", runs::incrementAndGet);
+
+        // Assert
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(1, second.value());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_ThrowsConflict_WhenFingerprintDiffers() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(10, 60_000);
+        store.execute("key", "1", () -> "first");
+
+        // Act & Assert
+        assertThrows(IdempotencyConflictException.class, () -> store.execute("key", "2", () -> "second"));
+    }
+
+    @Test
+    void execute_DoesNotRememberFailures() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(10, 60_000);
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> store.execute("key", "1", () -> {
+            throw new IllegalStateException("Database error");
+        }));
+        IdempotencyStore.Outcome<String> retry = store.execute("key", "1", () -> "saved");
+
+        // Assert
+        assertFalse(retry.replayed());
+        assertEquals("saved", retry.value());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicateWaitsForFirstRequest() throws Exception {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(10, 60_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<IdempotencyStore.Outcome<Integer>> first = CompletableFuture.supplyAsync(
+                () -> store.execute("key", "1", () -> {
+                    started.countDown();
+                    await(release);
+                    return runs.incrementAndGet();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        CompletableFuture<IdempotencyStore.Outcome<Integer>> duplicate = CompletableFuture.supplyAsync(
+                () -> store.execute("key", "1", runs::incrementAndGet));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (store.waiters("key") == 0) {
+            assertTrue(System.nanoTime() < deadline, "duplicate never waited for the first request");
+            Thread.sleep(10);
+        }
+        boolean doneBeforeRelease = duplicate.isDone();
+        release.countDown();
+
+        // Assert
+        assertFalse(doneBeforeRelease);
+        IdempotencyStore.Outcome<Integer> duplicateOutcome = duplicate.get(5, TimeUnit.SECONDS);
+        assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+        assertTrue(duplicateOutcome.replayed());
+        assertEquals(1, duplicateOutcome.value());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_EvictsOldestEntries_WhenFull() {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(2, 60_000);
+
+        // Act
+        store.execute("a", "1", () -> "a");
+        store.execute("b", "1", () -> "b");
+        store.execute("c", "1", () -> "c");
+
+        // Assert
+        assertEquals(2, store.size());
+        assertFalse(store.execute("a", "1", () -> "a again").replayed());
+    }
+
+    @Test
+    void execute_KeepsRunningEntry_WhenFull() throws Exception {
+        // Arrange
+        IdempotencyStore store = new IdempotencyStore(1, 60_000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<IdempotencyStore.Outcome<Integer>> first = CompletableFuture.supplyAsync(
+                () -> store.execute("running", "1", () -> {
+                    started.countDown();
+                    await(release);
+                    return runs.incrementAndGet();
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        store.execute("other", "1", () -> "other");
+        int sizeWhileRunning = store.size();
+        release.countDown();
+
+        // Assert
+        assertEquals(2, sizeWhileRunning);
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).value());
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void fingerprint_DistinguishesShiftedFields() {
+        // Act & Assert
+        assertEquals(IdempotencyStore.fingerprint("ab", "c", 1), IdempotencyStore.fingerprint("ab", "c", 1));
+        assertNotEquals(IdempotencyStore.fingerprint("ab", "c"), IdempotencyStore.fingerprint("a", "bc"));
+        assertNotEquals(IdempotencyStore.fingerprint(null, "a"), IdempotencyStore.fingerprint("", "a"));
+        assertEquals(64, IdempotencyStore.fingerprint("item").length());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.models.Item;
+
+public class ItemETagsTests {
+
+    private static Item item(long id, long version) {
+        Item item = new Item();
+        item.setId(id);
+        item.setVersion(version);
+        return item;
+    }
+
+    @Test
+    void onItemChanged_StaysWithinMaxEntries() {
+        // Arrange
+        ItemETags eTags = new ItemETags(100);
+
+        // Act
+        for (long id = 1; id <= 1000; id++) {
+            eTags.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, id, item(id, 0)));
+            eTags.onItemChanged(ItemChangedEvent.deleted(id));
+        }
+        eTags.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, 2000L, item(2000, 3)));
+
+        // Assert
+        assertTrue(eTags.size() <= 100);
+        assertEquals(Optional.of("\"2000-3\""), eTags.itemTag(2000L));
+    }
+
+    @Test
+    void remember_KeepsNewerVersionFromEvents() {
+        // Arrange
+        ItemETags eTags = new ItemETags(100);
+        long mark = eTags.mark();
+        eTags.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, 1L, item(1, 2)));
+
+        // Act
+        String tag = eTags.remember(item(1, 1), mark);
+
+        // Assert
+        assertEquals("\"1-1\"", tag);
+        assertEquals(Optional.of("\"1-2\""), eTags.itemTag(1L));
+    }
+
+    @Test
+    void remember_SkipsRead_WhenEntriesWereEvictedSinceItStarted() {
+        // Arrange
+        ItemETags eTags = new ItemETags(2);
+        long mark = eTags.mark();
+        eTags.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, 1L, item(1, 2)));
+        eTags.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, 2L, item(2, 0)));
+        eTags.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, 3L, item(3, 0)));
+
+        // Act
+        eTags.remember(item(1, 1), mark);
+
+        // Assert
+        assertNotEquals(Optional.of("\"1-1\""), eTags.itemTag(1L));
+    }
+
+}
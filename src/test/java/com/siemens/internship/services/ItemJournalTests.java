@@ -0,0 +1,227 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.repositories.IItemRepository;
+
+public class ItemJournalTests {
+
+    @TempDir
+    Path directory;
+
+    private final IItemRepository repository = mock(IItemRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private static Item item(long id, String status) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Item " + id);
+        item.setStatus(status);
+        item.setEmail("item" + id + "@example.com");
+        item.setPriority((int) id);
+        return item;
+    }
+
+    private ItemJournal journal() {
+        return new ItemJournal(this.repository, this.jdbcTemplate, true, this.directory.toString(), 4096, 1024);
+    }
+
+    @Test
+    void open_ReplaysLastStateOfEachItem() throws IOException {
+        // Arrange
+        ItemJournal journal = journal();
+        journal.open();
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, 1L, item(1, "NEW")));
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, 2L, item(2, "NEW")));
+        Item processed = item(1, "PROCESSED");
+        processed.setVersion(2L);
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.PROCESSED, 1L, processed));
+        journal.onItemChanged(ItemChangedEvent.deleted(2L));
+        journal.close();
+
+        // Act
+        Map<Long, Item> items = journal().open();
+
+        // Assert
+        assertEquals(1, items.size());
+        Item restored = items.get(1L);
+        assertEquals("PROCESSED", restored.getStatus());
+        assertEquals("Item 1", restored.getName());
+        assertNull(restored.getDescription());
+        assertEquals(1, restored.getPriority());
+        assertEquals(2L, restored.getVersion());
+    }
+
+    @Test
+    void open_KeepsHighestVersion_WhenRecordsWereAppendedOutOfOrder() throws IOException {
+        // Arrange
+        ItemJournal journal = journal();
+        journal.open();
+        Item newer = item(1, "PROCESSED");
+        newer.setVersion(3L);
+        Item older = item(1, "QUEUED");
+        older.setVersion(2L);
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.PROCESSED, 1L, newer));
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, 1L, older));
+        journal.close();
+
+        // Act
+        Map<Long, Item> items = journal().open();
+
+        // Assert
+        assertEquals("PROCESSED", items.get(1L).getStatus());
+        assertEquals(3L, items.get(1L).getVersion());
+    }
+
+    @Test
+    void open_StopsAtTornRecordAndKeepsAppending() throws IOException {
+        // Arrange
+        ItemJournal journal = journal();
+        journal.open();
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, 1L, item(1, "NEW")));
+        int end = journal.size();
+        journal.close();
+        try (FileChannel channel = FileChannel.open(this.directory.resolve(ItemJournal.JOURNAL_FILE),
+                StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putInt(100).putInt(42).flip(), end);
+        }
+
+        // Act
+        ItemJournal reopened = journal();
+        Map<Long, Item> items = reopened.open();
+        int reopenedAt = reopened.size();
+        reopened.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, 3L, item(3, "NEW")));
+        reopened.close();
+
+        // Assert
+        assertEquals(1, items.size());
+        assertEquals(end, reopenedAt);
+        assertEquals(List.of(1L, 3L), List.copyOf(journal().open().keySet()));
+    }
+
+    @Test
+    void onItemChanged_GrowsJournalPastSegmentSize() throws IOException {
+        // Arrange
+        ItemJournal journal = journal();
+        journal.open();
+
+        // Act
+        for (long id = 1; id <= 200; id++) {
+            journal.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, id, item(id, "NEW")));
+        }
+        journal.close();
+
+        // Assert
+        assertTrue(journal.size() > 4096);
+        assertEquals(200, journal().open().size());
+    }
+
+    @Test
+    void compact_KeepsOnlyRecordsAfterSnapshot() throws IOException {
+        // Arrange
+        ItemJournal journal = journal();
+        journal.open();
+        for (int i = 0; i < 50; i++) {
+            journal.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, 1L, item(1, "STATUS " + i)));
+        }
+        int before = journal.size();
+        when(this.repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(item(1, "STATUS 49"))));
+
+        // Act
+        journal.compactIfNeeded();
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, 2L, item(2, "NEW")));
+        journal.close();
+
+        // Assert
+        assertTrue(journal.size() < before);
+        Map<Long, Item> items = journal().open();
+        assertEquals("STATUS 49", items.get(1L).getStatus());
+        assertEquals("NEW", items.get(2L).getStatus());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_RestoresItemsIntoEmptyDatabase() throws IOException {
+        // Arrange
+        ItemJournal journal = journal();
+        journal.open();
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, 7L, item(7, "NEW")));
+        journal.close();
+        when(this.repository.count()).thenReturn(0L);
+
+        // Act
+        ItemJournal restarted = journal();
+        restarted.afterSingletonsInstantiated();
+        restarted.close();
+
+        // Assert
+        verify(this.jdbcTemplate).batchUpdate(startsWith("INSERT INTO items"), anyList());
+        verify(this.jdbcTemplate).execute("ALTER SEQUENCE items_seq RESTART WITH 58");
+        assertEquals(List.of(7L), restarted.takeRestored().orElseThrow().stream().map(Item::getId).toList());
+        assertTrue(restarted.takeRestored().isEmpty());
+    }
+
+    @Test
+    void afterSingletonsInstantiated_SkipsRestoreWhenDatabaseHasItems() throws IOException {
+        // Arrange
+        ItemJournal journal = journal();
+        journal.open();
+        journal.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, 7L, item(7, "NEW")));
+        journal.close();
+        when(this.repository.count()).thenReturn(1L);
+
+        // Act
+        ItemJournal restarted = journal();
+        restarted.afterSingletonsInstantiated();
+        restarted.close();
+
+        // Assert
+        verifyNoInteractions(this.jdbcTemplate);
+        assertTrue(restarted.takeRestored().isEmpty());
+    }
+
+    @Test
+    void open_RejectsFileWithoutJournalHeader() throws IOException {
+        // Arrange
+        try (FileChannel channel = FileChannel.open(this.directory.resolve(ItemJournal.JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(8).putInt(12).putInt(42).flip());
+        }
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> journal().open());
+    }
+
+    @Test
+    void open_RejectsOtherFormatVersion() throws IOException {
+        // Arrange
+        try (FileChannel channel = FileChannel.open(this.directory.resolve(ItemJournal.JOURNAL_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(ItemJournal.FILE_HEADER).putInt(ItemJournal.MAGIC)
+                    .putInt(ItemJournal.FORMAT_VERSION + 1).flip());
+        }
+
+        // Act & Assert
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> journal().open());
+        assertTrue(exception.getMessage().contains("format " + (ItemJournal.FORMAT_VERSION + 1)));
+    }
+
+}
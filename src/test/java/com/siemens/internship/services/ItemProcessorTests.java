@@ -0,0 +1,577 @@
+package com.siemens.internship.services;
+
+import static com.siemens.internship.support.QueryBudget.assertCallsAtMost;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.siemens.internship.config.ProcessingProperties;
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.exceptions.ServiceException;
+import com.siemens.internship.models.DeadLetter;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ItemPriority;
+import com.siemens.internship.models.ProcessingResult;
+import com.siemens.internship.repositories.IDeadLetterRepository;
+import com.siemens.internship.repositories.IItemRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemProcessorTests {
+
+    @Mock
+    private IItemRepository itemRepository;
+
+    @Mock
+    private IDeadLetterRepository deadLetterRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StatusWriteBuffer statusBuffer;
+
+    private ItemProcessor itemProcessor;
+
+    private Item testItem;
+    private Item testItem2;
+
+    @BeforeEach
+    void setUp() {
+        testItem = new Item();
+        testItem.setId(1L);
+        testItem.setName("Test Item");
+        testItem.setStatus("NEW");
+
+        testItem2 = new Item();
+        testItem2.setId(2L);
+        testItem2.setName("Test Item 2");
+        testItem2.setStatus("NEW");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (itemProcessor != null) {
+            itemProcessor.shutdown();
+        }
+    }
+
+    private ItemProcessor processor(int threads, Duration timeout, Duration itemTimeout, int maxAttempts) {
+        itemProcessor = new ItemProcessor(itemRepository, deadLetterRepository, eventPublisher, statusBuffer,
+                new ProcessingProperties(threads, timeout, itemTimeout,
+                        new ProcessingProperties.Retry(maxAttempts, Duration.ofMillis(10), Duration.ofMillis(50)),
+                        new ProcessingProperties.CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(30)),
+                        new ProcessingProperties.Queue(100, Duration.ofSeconds(1))));
+        return itemProcessor;
+    }
+
+    private ItemProcessor processor(int threads, Duration timeout, Duration itemTimeout) {
+        return processor(threads, timeout, itemTimeout, 3);
+    }
+
+    private static List<ItemPriority> candidates(Long... ids) {
+        return Arrays.stream(ids).map(id -> new ItemPriority(id, 0)).toList();
+    }
+
+    private ItemProcessor processor() {
+        return processor(2, Duration.ofSeconds(10), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void processAll_ProcessesAllItems_WhenSuccessful() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(testItem2));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProcessingResult result = processor().processAll(null).join();
+
+        // Assert
+        assertEquals(2, result.processed().size());
+        assertEquals("PROCESSED", result.processed().get(0).getStatus());
+        assertEquals("PROCESSED", result.processed().get(1).getStatus());
+        assertTrue(result.failed().isEmpty());
+        assertTrue(result.notStarted().isEmpty());
+        assertFalse(result.cancelled());
+        assertFalse(result.timedOut());
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(ItemChangeType.PROCESSED, 1L, testItem));
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(ItemChangeType.PROCESSED, 2L, testItem2));
+    }
+
+    @Test
+    void processAll_BuffersStatus_WhenWriteBehindIsEnabled() {
+        // Arrange
+        Item buffered = new Item(1L, "Test Item", null, "PROCESSED", null, 0, 1L);
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L));
+        when(statusBuffer.isEnabled()).thenReturn(true);
+        when(statusBuffer.updateStatus(1L, "PROCESSED", ItemChangeType.PROCESSED)).thenReturn(buffered);
+
+        // Act
+        ProcessingResult result = processor().processAll(null).join();
+
+        // Assert
+        assertEquals(List.of(buffered), result.processed());
+        verify(itemRepository, never()).save(any(Item.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void processAll_ReadsItemsWithinFixedBudget() {
+        // Arrange
+        int count = 40;
+        Long[] ids = LongStream.rangeClosed(1, count).boxed().toArray(Long[]::new);
+        List<Item> items = Arrays.stream(ids)
+                .map(id -> new Item(id, "Item " + id, null, "NEW", null, 0, 0L))
+                .toList();
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(ids));
+        when(itemRepository.findAllById(anyIterable())).thenReturn(items);
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProcessingResult result = processor(8, Duration.ofSeconds(10), Duration.ofSeconds(5)).processAll(null).join();
+
+        // Assert - the id query and one page, however many items the run has
+        assertEquals(count, result.processed().size());
+        assertCallsAtMost(itemRepository, 2, "findPrioritiesAtLeast", "findAllById", "findById", "findAll");
+        verify(itemRepository, times(count)).save(any(Item.class));
+    }
+
+    @Test
+    void processAll_RereadsStalePageCopy_WithoutUsingARetry() {
+        // Arrange
+        Item stale = new Item(1L, "Test Item", null, "NEW", null, 0, 0L);
+        Item fresh = new Item(1L, "Renamed Item", null, "NEW", null, 0, 1L);
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L));
+        when(itemRepository.findAllById(anyIterable())).thenReturn(List.of(stale));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(fresh));
+        when(itemRepository.save(stale)).thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+        when(itemRepository.save(fresh)).thenReturn(fresh);
+
+        // Act
+        ProcessingResult result = processor(1, Duration.ofSeconds(10), Duration.ofSeconds(5), 1)
+                .processAll(null).join();
+
+        // Assert
+        assertEquals(List.of(fresh), result.processed());
+        assertEquals("PROCESSED", fresh.getStatus());
+        verify(itemRepository, times(1)).findById(1L);
+        verifyNoInteractions(deadLetterRepository);
+    }
+
+    @Test
+    void processAll_ReportsPartialResults_WhenItemNotFound() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.findById(2L)).thenReturn(Optional.empty());
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProcessingResult result = processor().processAll(null).join();
+
+        // Assert
+        assertEquals(List.of(testItem), result.processed());
+        assertEquals("Source not found: id 2 not found", result.failed().get(2L));
+        assertTrue(result.notStarted().isEmpty());
+        verify(itemRepository, times(1)).findById(2L);
+        verifyNoInteractions(deadLetterRepository);
+    }
+
+    @Test
+    void processAll_RetriesTransientErrors() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L));
+        when(itemRepository.findById(1L))
+                .thenThrow(new TransientDataAccessResourceException("Connection reset"))
+                .thenReturn(Optional.of(testItem));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProcessingResult result = processor().processAll(null).join();
+
+        // Assert
+        assertEquals(List.of(testItem), result.processed());
+        verify(itemRepository, times(2)).findById(1L);
+        verifyNoInteractions(deadLetterRepository);
+    }
+
+    @Test
+    void processAll_DeadLettersItem_WhenRetriesAreExhausted() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L));
+        when(itemRepository.findById(1L)).thenThrow(new TransientDataAccessResourceException("Connection reset"));
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(testItem2));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(deadLetterRepository.findByItemId(1L)).thenReturn(Optional.empty());
+
+        // Act
+        ProcessingResult result = processor(1, Duration.ofSeconds(10), Duration.ofSeconds(5), 2)
+                .processAll(null).join();
+
+        // Assert
+        assertEquals(List.of(testItem2), result.processed());
+        assertEquals("Connection reset", result.failed().get(1L));
+        verify(itemRepository, times(2)).findById(1L);
+
+        ArgumentCaptor<DeadLetter> deadLetter = ArgumentCaptor.forClass(DeadLetter.class);
+        verify(deadLetterRepository, times(1)).save(deadLetter.capture());
+        assertEquals(1L, deadLetter.getValue().getItemId());
+        assertEquals(2, deadLetter.getValue().getAttempts());
+        assertTrue(deadLetter.getValue().getCause().contains("Connection reset"));
+    }
+
+    @Test
+    void processAll_StopsCallingDatabase_WhenCircuitBreakerOpens() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L, 3L, 4L, 5L));
+        when(itemRepository.findById(anyLong())).thenThrow(new TransientDataAccessResourceException("Database down"));
+        when(deadLetterRepository.findByItemId(anyLong())).thenReturn(Optional.empty());
+
+        // Act
+        ProcessingResult result = processor(1, Duration.ofSeconds(10), Duration.ofSeconds(5), 1)
+                .processAll(null).join();
+
+        // Assert - the breaker opens after four failures, the fifth item never reaches the repository and
+        // the dead letters of the last two are held back while the database is down
+        assertEquals(5, result.failed().size());
+        assertTrue(result.failed().get(5L).startsWith("Service error: circuit breaker open"));
+        verify(itemRepository, times(4)).findById(anyLong());
+        verify(deadLetterRepository, times(3)).save(any(DeadLetter.class));
+    }
+
+    @Test
+    void processAll_WritesHeldDeadLetters_WhenCircuitBreakerCloses() throws InterruptedException {
+        // Arrange
+        itemProcessor = new ItemProcessor(itemRepository, deadLetterRepository, eventPublisher, statusBuffer,
+                new ProcessingProperties(1, Duration.ofSeconds(10), Duration.ofSeconds(5),
+                        new ProcessingProperties.Retry(1, Duration.ofMillis(10), Duration.ofMillis(50)),
+                        new ProcessingProperties.CircuitBreaker(2, 2, 0.5, Duration.ofMillis(50)),
+                        new ProcessingProperties.Queue(100, Duration.ofSeconds(1))));
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L, 3L));
+        when(itemRepository.findById(anyLong())).thenThrow(new TransientDataAccessResourceException("Database down"));
+        when(deadLetterRepository.findByItemId(anyLong())).thenReturn(Optional.empty());
+        itemProcessor.processAll(null).join();
+        verify(deadLetterRepository, times(1)).save(any(DeadLetter.class));
+        Thread.sleep(100);
+        doReturn(Optional.of(testItem)).when(itemRepository).findById(anyLong());
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProcessingResult result = itemProcessor.processAll(null).join();
+
+        // Assert - items 2 and 3 got their dead letters once the trial call closed the breaker, and item 1
+        // lost its dead letter when it was processed
+        assertEquals(3, result.processed().size());
+        ArgumentCaptor<DeadLetter> deadLetters = ArgumentCaptor.forClass(DeadLetter.class);
+        verify(deadLetterRepository, times(3)).save(deadLetters.capture());
+        assertEquals(List.of(1L, 2L, 3L), deadLetters.getAllValues().stream().map(DeadLetter::getItemId).toList());
+        verify(deadLetterRepository).deleteByItemId(1L);
+    }
+
+    @Test
+    void writeHeldDeadLetters_WritesThem_AfterRunEndedWithBreakerOpen() throws InterruptedException {
+        // Arrange
+        itemProcessor = new ItemProcessor(itemRepository, deadLetterRepository, eventPublisher, statusBuffer,
+                new ProcessingProperties(1, Duration.ofSeconds(10), Duration.ofSeconds(5),
+                        new ProcessingProperties.Retry(1, Duration.ofMillis(10), Duration.ofMillis(50)),
+                        new ProcessingProperties.CircuitBreaker(2, 2, 0.5, Duration.ofMillis(50)),
+                        new ProcessingProperties.Queue(100, Duration.ofSeconds(1))));
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L, 3L));
+        when(itemRepository.findById(anyLong())).thenThrow(new TransientDataAccessResourceException("Database down"));
+        when(deadLetterRepository.findByItemId(anyLong())).thenReturn(Optional.empty());
+        itemProcessor.processAll(null).join();
+        verify(deadLetterRepository, times(1)).save(any(DeadLetter.class));
+        Thread.sleep(100);
+
+        // Act
+        itemProcessor.writeHeldDeadLetters();
+
+        // Assert - the first write was the trial call that closed the breaker
+        ArgumentCaptor<DeadLetter> deadLetters = ArgumentCaptor.forClass(DeadLetter.class);
+        verify(deadLetterRepository, times(3)).save(deadLetters.capture());
+        assertEquals(List.of(1L, 2L, 3L), deadLetters.getAllValues().stream().map(DeadLetter::getItemId).toList());
+    }
+
+    @Test
+    void processAll_KeepsCircuitBreakerClosed_OnWriteConflicts() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L, 3L, 4L, 5L));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(testItem));
+        when(itemRepository.save(any(Item.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+        when(deadLetterRepository.findByItemId(anyLong())).thenReturn(Optional.empty());
+
+        // Act
+        ProcessingResult result = processor(1, Duration.ofSeconds(10), Duration.ofSeconds(5), 2)
+                .processAll(null).join();
+
+        // Assert - every item was tried twice and dead-lettered at once, none was rejected by the breaker
+        assertEquals(5, result.failed().size());
+        verify(itemRepository, times(10)).save(any(Item.class));
+        verify(deadLetterRepository, times(5)).save(any(DeadLetter.class));
+    }
+
+    @Test
+    void processAll_OnlyQueriesItemsAtOrAboveMinPriority() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(5)).thenReturn(List.of(new ItemPriority(2L, 7)));
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(testItem2));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        ProcessingResult result = processor().processAll(5).join();
+
+        // Assert
+        assertEquals(List.of(testItem2), result.processed());
+        verify(itemRepository, never()).findById(1L);
+    }
+
+    @Test
+    void processOne_ProcessesSingleItem() throws Exception {
+        // Arrange
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        Item result = processor().processOne(1L);
+
+        // Assert
+        assertEquals("PROCESSED", result.getStatus());
+        verify(itemRepository, never()).findPrioritiesAtLeast(anyInt());
+    }
+
+    @Test
+    void processAll_FailsFuture_WhenFindAllIdsThrowsException() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenThrow(new RuntimeException("Database error"));
+
+        // Act
+        CompletableFuture<ProcessingResult> future = processor().processAll(null);
+
+        // Assert
+        assertTrue(future.isCompletedExceptionally());
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertTrue(exception.getCause() instanceof ServiceException);
+        assertEquals("Service error: Error initiating async processing", exception.getCause().getMessage());
+    }
+
+    @Test
+    void processAll_FailsItem_WhenItemTimeoutExpires() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L));
+        when(itemRepository.findById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return Optional.of(testItem);
+        });
+
+        // Act
+        ProcessingResult result = processor(1, Duration.ofSeconds(10), Duration.ofMillis(200))
+                .processAll(null).orTimeout(5, TimeUnit.SECONDS).join();
+
+        // Assert
+        assertTrue(result.processed().isEmpty());
+        assertTrue(result.failed().get(1L).startsWith("timed out"));
+        verify(itemRepository, never()).save(any(Item.class));
+    }
+
+    @Test
+    void processAll_LetsWriteFinish_WhenItemTimeoutExpiresDuringIt() {
+        // Arrange
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(400);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return invocation.getArgument(0);
+        });
+
+        // Act
+        ProcessingResult result = processor(1, Duration.ofSeconds(10), Duration.ofMillis(200))
+                .processAll(null).orTimeout(5, TimeUnit.SECONDS).join();
+
+        // Assert - the save outlived the item timeout, so the item is reported as it ended up
+        assertFalse(interrupted.get());
+        assertEquals(List.of(testItem), result.processed());
+        assertTrue(result.failed().isEmpty());
+    }
+
+    @Test
+    void processAll_ReportsNotStartedItems_WhenRunDeadlineExpires() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L, 3L));
+        when(itemRepository.findById(1L)).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return Optional.of(testItem);
+        });
+
+        // Act
+        ProcessingResult result = processor(1, Duration.ofMillis(300), Duration.ofSeconds(10))
+                .processAll(null).orTimeout(5, TimeUnit.SECONDS).join();
+
+        // Assert
+        assertTrue(result.timedOut());
+        assertEquals("run deadline exceeded", result.failed().get(1L));
+        assertEquals(List.of(2L, 3L), result.notStarted());
+    }
+
+    @Test
+    void cancel_StopsOnlyTheGivenRun() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L));
+        when(itemRepository.findPrioritiesAtLeast(5)).thenReturn(List.of(new ItemPriority(2L, 5)));
+        when(itemRepository.findById(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            Thread.sleep(5_000);
+            return Optional.of(testItem);
+        });
+        when(itemRepository.findById(2L)).thenReturn(Optional.of(testItem2));
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ItemProcessor processor = processor(2, Duration.ofSeconds(10), Duration.ofSeconds(10));
+        CompletableFuture<ProcessingResult> cancelledRun = processor.processAll(null, "first");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ProcessingResult> otherRun = processor.processAll(5, "second");
+        assertThrows(ServiceException.class, () -> processor.processAll(null, "first"));
+
+        // Act
+        boolean cancelled = processor.cancel("first");
+
+        // Assert
+        assertTrue(cancelled);
+        assertTrue(cancelledRun.get(5, TimeUnit.SECONDS).cancelled());
+        ProcessingResult other = otherRun.get(5, TimeUnit.SECONDS);
+        assertFalse(other.cancelled());
+        assertEquals(List.of(testItem2), other.processed());
+        assertFalse(processor.cancel("first"));
+    }
+
+    @Test
+    void cancelAll_StopsRunAndReportsPartialResults() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L));
+        when(itemRepository.findById(1L)).thenAnswer(invocation -> {
+            started.countDown();
+            Thread.sleep(5_000);
+            return Optional.of(testItem);
+        });
+        ItemProcessor processor = processor(1, Duration.ofSeconds(10), Duration.ofSeconds(10));
+        CompletableFuture<ProcessingResult> future = processor.processAll(null);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        int cancelled = processor.cancelAll();
+        ProcessingResult result = future.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(1, cancelled);
+        assertTrue(result.cancelled());
+        assertEquals("cancelled", result.failed().get(1L));
+        assertEquals(List.of(2L), result.notStarted());
+        assertEquals(0, processor.cancelAll());
+    }
+
+    @Test
+    void processAll_FailsItemsImmediately_WhenProcessorIsShutDown() {
+        // Arrange
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L));
+        ItemProcessor processor = processor();
+        processor.shutdown();
+
+        // Act
+        ProcessingResult result = processor.processAll(null).orTimeout(1, TimeUnit.SECONDS).join();
+
+        // Assert
+        assertEquals("processing is shutting down", result.failed().get(1L));
+        assertEquals("processing is shutting down", result.failed().get(2L));
+        assertTrue(result.notStarted().isEmpty());
+    }
+
+    @Test
+    void processAll_RunsUrgentItems_WhileBackfillWaitsForRoomInQueue() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> order = new CopyOnWriteArrayList<>();
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L, 3L, 4L, 5L, 6L));
+        when(itemRepository.findPrioritiesAtLeast(10)).thenReturn(List.of(new ItemPriority(100L, 10)));
+        when(itemRepository.findById(anyLong())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            Long id = invocation.getArgument(0);
+            order.add(id);
+            return Optional.of(new Item(id, "Item " + id, null, "NEW", null, 0, 0L));
+        });
+        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        itemProcessor = new ItemProcessor(itemRepository, deadLetterRepository, eventPublisher, statusBuffer,
+                new ProcessingProperties(1, Duration.ofSeconds(10), Duration.ofSeconds(5),
+                        new ProcessingProperties.Retry(1, Duration.ofMillis(10), Duration.ofMillis(50)),
+                        new ProcessingProperties.CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(30)),
+                        new ProcessingProperties.Queue(1, Duration.ofHours(1))));
+        CompletableFuture<ProcessingResult> backfill = itemProcessor.processAll(null);
+        CompletableFuture<ProcessingResult> urgent = itemProcessor.processAll(10);
+        // Both feeders are now waiting for room in the queue
+        Thread.sleep(200);
+
+        // Act
+        release.countDown();
+
+        // Assert
+        assertEquals(1, urgent.get(5, TimeUnit.SECONDS).processed().size());
+        assertEquals(6, backfill.get(5, TimeUnit.SECONDS).processed().size());
+        assertTrue(order.indexOf(100L) < order.indexOf(6L), "processing order was " + order);
+    }
+
+    @Test
+    void processAll_ReturnsWithoutWaiting_WhenQueueIsFull() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(itemRepository.findPrioritiesAtLeast(Integer.MIN_VALUE)).thenReturn(candidates(1L, 2L, 3L, 4L));
+        when(itemRepository.findById(anyLong())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        itemProcessor = new ItemProcessor(itemRepository, deadLetterRepository, eventPublisher, statusBuffer,
+                new ProcessingProperties(1, Duration.ofSeconds(10), Duration.ofSeconds(10),
+                        new ProcessingProperties.Retry(1, Duration.ofMillis(10), Duration.ofMillis(50)),
+                        new ProcessingProperties.CircuitBreaker(4, 4, 0.5, Duration.ofSeconds(30)),
+                        new ProcessingProperties.Queue(1, Duration.ofSeconds(1))));
+
+        // Act
+        long start = System.nanoTime();
+        CompletableFuture<ProcessingResult> future = itemProcessor.processAll(null);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        release.countDown();
+
+        // Assert
+        assertTrue(elapsedMillis < 1_000, "processAll waited " + elapsedMillis + " ms");
+        assertEquals(4, future.get(5, TimeUnit.SECONDS).failed().size());
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.repositories.IItemRepository;
+
+public class ItemReadModelTests {
+
+    private static Item item(long id, String status) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Item " + id);
+        item.setStatus(status);
+        item.setEmail("item" + id + "@example.com");
+        return item;
+    }
+
+    private static ItemReadModel readModel(List<Item> stored) {
+        IItemRepository repository = mock(IItemRepository.class);
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(stored));
+        ItemReadModel readModel = new ItemReadModel(repository, mock(ItemJournal.class), true);
+        readModel.load();
+        return readModel;
+    }
+
+    @Test
+    void load_ServesItemsFromRepository() {
+        // Act
+        ItemReadModel readModel = readModel(List.of(item(2L, "NEW"), item(1L, "NEW")));
+
+        // Assert
+        assertTrue(readModel.isReady());
+        assertEquals(2, readModel.size());
+        assertEquals(List.of(1L, 2L), readModel.findAll().stream().map(Item::getId).toList());
+        assertEquals("Item 2", readModel.findById(2L).orElseThrow().getName());
+        assertEquals(Optional.empty(), readModel.findById(3L));
+    }
+
+    @Test
+    void load_UsesItemsRestoredFromJournal_InsteadOfDatabase() {
+        // Arrange
+        IItemRepository repository = mock(IItemRepository.class);
+        ItemJournal journal = mock(ItemJournal.class);
+        when(journal.takeRestored()).thenReturn(Optional.of(List.of(item(1L, "NEW"), item(2L, "PROCESSED"))));
+        ItemReadModel readModel = new ItemReadModel(repository, journal, true);
+
+        // Act
+        readModel.load();
+
+        // Assert
+        assertTrue(readModel.isReady());
+        assertEquals(2, readModel.size());
+        assertEquals("PROCESSED", readModel.findById(2L).orElseThrow().getStatus());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void load_DoesNothing_WhenDisabled() {
+        // Arrange
+        IItemRepository repository = mock(IItemRepository.class);
+        ItemReadModel readModel = new ItemReadModel(repository, mock(ItemJournal.class), false);
+
+        // Act
+        readModel.load();
+
+        // Assert
+        assertFalse(readModel.isReady());
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void onItemChanged_FollowsWritesAcrossResizeAndRemoval() {
+        // Arrange
+        ItemReadModel readModel = readModel(List.of());
+
+        // Act
+        for (long id = 1; id <= 5000; id++) {
+            readModel.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, id, item(id, "NEW")));
+        }
+        for (long id = 1; id <= 5000; id += 2) {
+            readModel.onItemChanged(ItemChangedEvent.deleted(id));
+        }
+        readModel.onItemChanged(new ItemChangedEvent(ItemChangeType.PROCESSED, 4L, item(4L, "PROCESSED")));
+
+        // Assert
+        assertEquals(2500, readModel.size());
+        for (long id = 1; id <= 5000; id++) {
+            assertEquals(id % 2 == 0, readModel.findById(id).isPresent(), "id " + id);
+        }
+        assertEquals("PROCESSED", readModel.findById(4L).orElseThrow().getStatus());
+        assertEquals("NEW", readModel.findById(6L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void onItemChanged_IgnoresEventOlderThanStoredItem() {
+        // Arrange
+        ItemReadModel readModel = readModel(List.of());
+        Item newer = item(1L, "PROCESSED");
+        newer.setVersion(3L);
+        Item older = item(1L, "QUEUED");
+        older.setVersion(2L);
+
+        // Act
+        readModel.onItemChanged(new ItemChangedEvent(ItemChangeType.PROCESSED, 1L, newer));
+        readModel.onItemChanged(new ItemChangedEvent(ItemChangeType.UPDATED, 1L, older));
+
+        // Assert
+        Item stored = readModel.findById(1L).orElseThrow();
+        assertEquals("PROCESSED", stored.getStatus());
+        assertEquals(3L, stored.getVersion());
+    }
+
+    @Test
+    void onItemChanged_KeepsStatuses_BeyondDictionaryLimit() {
+        // Arrange
+        ItemReadModel readModel = readModel(List.of());
+
+        // Act
+        for (long id = 1; id <= Short.MAX_VALUE + 10; id++) {
+            readModel.onItemChanged(new ItemChangedEvent(ItemChangeType.CREATED, id, item(id, "S" + id)));
+        }
+
+        // Assert
+        assertEquals(Short.MAX_VALUE + 10, readModel.size());
+        assertEquals("S1", readModel.findById(1L).orElseThrow().getStatus());
+        assertEquals("S" + (Short.MAX_VALUE + 10), readModel.findById(Short.MAX_VALUE + 10L).orElseThrow().getStatus());
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.siemens.internship.services;
+
+import static com.siemens.internship.support.QueryBudget.assertStatementsAtMost;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.siemens.internship.models.Item;
+
+@SpringBootTest
+public class ItemServiceQueryCountTests {
+
+    @Autowired
+    private IItemService itemService;
+
+    private Item newItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setStatus("NEW");
+        item.setEmail("budget@example.com");
+        return item;
+    }
+
+    @Test
+    void save_NewItem_StaysWithinStatementBudget() {
+        // Sequence fetch plus the insert
+        Item saved = assertStatementsAtMost(2, () -> itemService.save(newItem("Budget Item")));
+
+        assertNotNull(saved.getId());
+    }
+
+    @Test
+    void findById_StaysWithinStatementBudget() {
+        Item saved = itemService.save(newItem("Lookup Item"));
+
+        Item found = assertStatementsAtMost(1, () -> itemService.findById(saved.getId()));
+
+        assertEquals("Lookup Item", found.getName());
+    }
+
+    @Test
+    void save_ExistingItem_StaysWithinStatementBudget() {
+        Item saved = itemService.save(newItem("Merge Item"));
+        saved.setStatus("UPDATED");
+
+        // Merge select plus the update
+        assertStatementsAtMost(2, () -> itemService.save(saved));
+    }
+
+    @Test
+    void deleteById_StaysWithinStatementBudget() {
+        Item saved = itemService.save(newItem("Delete Item"));
+
+        // Existence check, load for removal, delete
+        assertStatementsAtMost(3, () -> itemService.deleteById(saved.getId()));
+    }
+
+}
@@ -2,23 +2,30 @@ package com.siemens.internship.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static com.siemens.internship.support.QueryBudget.assertCallsAtMost;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
 import com.siemens.internship.exceptions.ServiceException;
 import com.siemens.internship.exceptions.SourceNotFoundException;
 import com.siemens.internship.models.Item;
+import com.siemens.internship.models.ProcessingResult;
 import com.siemens.internship.repositories.IItemRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +34,18 @@ public class ItemServiceTests {
     @Mock
     private IItemRepository itemRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ItemReadModel readModel;
+
+    @Mock
+    private ItemProcessor itemProcessor;
+
+    @Mock
+    private StatusWriteBuffer statusBuffer;
+
     @InjectMocks
     private ItemService itemService;
 
@@ -79,6 +98,34 @@ public class ItemServiceTests {
         verify(itemRepository, times(1)).findAll();
     }
 
+    @Test
+    void findAll_ServedFromReadModel_WhenReady() {
+        // Arrange
+        when(readModel.isReady()).thenReturn(true);
+        when(readModel.findAll()).thenReturn(testItems);
+
+        // Act
+        List<Item> result = itemService.findAll();
+
+        // Assert
+        assertEquals(testItems, result);
+        verifyNoInteractions(itemRepository);
+    }
+
+    @Test
+    void findById_ServedFromReadModel_WhenReady() {
+        // Arrange
+        when(readModel.isReady()).thenReturn(true);
+        when(readModel.findById(1L)).thenReturn(Optional.of(testItem));
+
+        // Act
+        Item result = itemService.findById(1L);
+
+        // Assert
+        assertEquals(testItem, result);
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void findById_ReturnsItem_WhenItemExists() {
         // Arrange
@@ -92,6 +139,18 @@ public class ItemServiceTests {
         verify(itemRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void findById_StaysWithinRoundTripBudget() {
+        // Arrange
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+
+        // Act
+        itemService.findById(1L);
+
+        // Assert
+        assertCallsAtMost(itemRepository, 1);
+    }
+
     @Test
     void findById_ThrowsSourceNotFoundException_WhenItemDoesNotExist() {
         // Arrange
@@ -119,6 +178,32 @@ public class ItemServiceTests {
         verify(itemRepository, times(1)).save(testItem);
     }
 
+    @Test
+    void save_PublishesCreatedEvent_WhenItemIsNew() {
+        // Arrange
+        Item newItem = new Item();
+        newItem.setName("New Item");
+        when(itemRepository.save(newItem)).thenReturn(testItem);
+
+        // Act
+        itemService.save(newItem);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(ItemChangeType.CREATED, 1L, testItem));
+    }
+
+    @Test
+    void save_PublishesUpdatedEvent_WhenItemExists() {
+        // Arrange
+        when(itemRepository.save(testItem)).thenReturn(testItem);
+
+        // Act
+        itemService.save(testItem);
+
+        // Assert
+        verify(eventPublisher, times(1)).publishEvent(new ItemChangedEvent(ItemChangeType.UPDATED, 1L, testItem));
+    }
+
     @Test
     void save_ThrowsServiceException_WhenRepositoryThrowsException() {
         // Arrange
@@ -133,6 +218,74 @@ public class ItemServiceTests {
         verify(itemRepository, times(1)).save(testItem);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void save_WritesThroughStatusBuffer_WhenWriteBehindIsEnabled() {
+        // Arrange
+        when(statusBuffer.isEnabled()).thenReturn(true);
+        when(statusBuffer.writeThrough(eq(1L), any(Supplier.class)))
+                .thenAnswer(invocation -> invocation.<Supplier<Item>>getArgument(1).get());
+        when(itemRepository.save(testItem)).thenReturn(testItem);
+
+        // Act
+        Item result = itemService.save(testItem);
+
+        // Assert
+        assertSame(testItem, result);
+        InOrder inOrder = inOrder(statusBuffer, itemRepository, eventPublisher);
+        inOrder.verify(statusBuffer).writeThrough(eq(1L), any(Supplier.class));
+        inOrder.verify(itemRepository).save(testItem);
+        inOrder.verify(eventPublisher).publishEvent(new ItemChangedEvent(ItemChangeType.UPDATED, 1L, testItem));
+    }
+
+    @Test
+    void updateStatus_BuffersStatus_WhenWriteBehindIsEnabled() {
+        // Arrange
+        Item buffered = new Item(1L, "Test Item", null, "DONE", null, 0, 3L);
+        when(statusBuffer.isEnabled()).thenReturn(true);
+        when(statusBuffer.updateStatus(1L, "DONE", ItemChangeType.UPDATED)).thenReturn(buffered);
+
+        // Act
+        Item result = itemService.updateStatus(1L, "DONE");
+
+        // Assert
+        assertSame(buffered, result);
+        verify(itemRepository, never()).save(any(Item.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateStatus_SavesItem_WhenWriteBehindIsDisabled() {
+        // Arrange
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.save(testItem)).thenReturn(testItem);
+
+        // Act
+        Item result = itemService.updateStatus(1L, "DONE");
+
+        // Assert
+        assertEquals("DONE", result.getStatus());
+        verify(itemRepository).save(testItem);
+        verify(statusBuffer, never()).updateStatus(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void findById_ReturnsBufferedStatus_WhenWriteBehindIsEnabled() {
+        // Arrange
+        Item buffered = new Item();
+        buffered.setId(1L);
+        buffered.setStatus("DONE");
+        when(statusBuffer.isEnabled()).thenReturn(true);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(statusBuffer.overlay(testItem)).thenReturn(buffered);
+
+        // Act
+        Item result = itemService.findById(1L);
+
+        // Assert
+        assertEquals("DONE", result.getStatus());
+    }
+
     @Test
     void deleteById_DeletesItem_WhenItemExists() {
         // Arrange
@@ -145,6 +298,7 @@ public class ItemServiceTests {
         // Assert
         verify(itemRepository, times(1)).existsById(1L);
         verify(itemRepository, times(1)).deleteById(1L);
+        verify(eventPublisher, times(1)).publishEvent(ItemChangedEvent.deleted(1L));
     }
 
     @Test
@@ -160,6 +314,7 @@ public class ItemServiceTests {
         assertEquals("Service error: Error deleting item with id: 1", exception.getMessage());
         verify(itemRepository, times(1)).existsById(1L);
         verify(itemRepository, never()).deleteById(1L);
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -177,86 +332,30 @@ public class ItemServiceTests {
     }
 
     @Test
-    void processItemsAsync_ProcessesAllItems_WhenSuccessful() throws Exception {
+    void processItemsAsync_DelegatesToProcessor() {
         // Arrange
-        List<Long> itemIds = Arrays.asList(1L, 2L);
-        when(itemRepository.findAllIds()).thenReturn(itemIds);
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
-        when(itemRepository.findById(2L)).thenReturn(Optional.of(testItems.get(1)));
-
-        Item processedItem1 = new Item();
-        processedItem1.setId(1L);
-        processedItem1.setName("Test Item");
-        processedItem1.setDescription("Test Description");
-        processedItem1.setStatus("PROCESSED");
-        processedItem1.setEmail("test@example.com");
-
-        Item processedItem2 = new Item();
-        processedItem2.setId(2L);
-        processedItem2.setName("Test Item 2");
-        processedItem2.setDescription("Test Description 2");
-        processedItem2.setStatus("PROCESSED");
-        processedItem2.setEmail("test2@example.com");
-
-        when(itemRepository.save(any(Item.class)))
-                .thenAnswer(invocation -> {
-                    Item item = invocation.getArgument(0);
-                    return item;
-                });
+        ProcessingResult processingResult = new ProcessingResult(testItems, Map.of(), List.of(), false, false);
+        when(itemProcessor.processAll(5, "run-1")).thenReturn(CompletableFuture.completedFuture(processingResult));
 
         // Act
-        CompletableFuture<List<Item>> future = itemService.processItemsAsync();
-        List<Item> result = future.get(); // Wait for the future to complete
+        ProcessingResult result = itemService.processItemsAsync(5, "run-1").join();
 
         // Assert
-        assertEquals(2, result.size());
-        assertEquals("PROCESSED", result.get(0).getStatus());
-        assertEquals("PROCESSED", result.get(1).getStatus());
-        verify(itemRepository, times(1)).findAllIds();
-        verify(itemRepository, times(1)).findById(1L);
-        verify(itemRepository, times(1)).findById(2L);
-        verify(itemRepository, times(2)).save(any(Item.class));
+        assertEquals(processingResult, result);
+        verify(itemProcessor, times(1)).processAll(5, "run-1");
+        verifyNoInteractions(itemRepository);
     }
 
     @Test
-    void processItemsAsync_ThrowsException_WhenItemNotFound() throws Exception {
+    void cancelProcessing_DelegatesToProcessor() {
         // Arrange
-        List<Long> itemIds = Arrays.asList(1L);
-        when(itemRepository.findAllIds()).thenReturn(itemIds);
-        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemProcessor.cancel("run-1")).thenReturn(true);
 
         // Act
-        CompletableFuture<List<Item>> future = itemService.processItemsAsync();
+        boolean cancelled = itemService.cancelProcessing("run-1");
 
         // Assert
-        CompletionException exception = assertThrows(CompletionException.class, () -> {
-            future.join();
-        });
-
-        assertTrue(exception.getCause() instanceof ServiceException);
-        verify(itemRepository, times(1)).findAllIds();
-        verify(itemRepository, times(1)).findById(1L);
-    }
-
-    @Test
-    void processItemsAsync_ThrowsException_WhenRepositoryFindAllIdsThrowsException() {
-        // Arrange
-        when(itemRepository.findAllIds()).thenThrow(new RuntimeException("Database error"));
-
-        // Act
-        CompletableFuture<List<Item>> future = itemService.processItemsAsync();
-
-        // Assert
-        assertTrue(future.isCompletedExceptionally());
-        ServiceException exception = assertThrows(ServiceException.class, () -> {
-            try {
-                future.join();
-            } catch (CompletionException e) {
-                throw e.getCause();
-            }
-        });
-
-        assertEquals("Service error: Error initiating async processing", exception.getMessage());
-        verify(itemRepository, times(1)).findAllIds();
+        assertTrue(cancelled);
+        verify(itemProcessor, times(1)).cancel("run-1");
     }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.siemens.internship.config.ProcessingProperties;
+
+public class ProcessingSchedulerTests {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ProcessingScheduler scheduler(int capacity, Duration agingInterval) {
+        return new ProcessingScheduler(executor, 1, new ProcessingProperties.Queue(capacity, agingInterval));
+    }
+
+    private static Runnable blockUntil(CountDownLatch started, CountDownLatch release) {
+        return () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    @Test
+    void submit_RunsHigherPriorityFirst() throws Exception {
+        // Arrange
+        ProcessingScheduler scheduler = scheduler(10, Duration.ofHours(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        scheduler.submit(0, blockUntil(started, release), 1, TimeUnit.SECONDS);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Future<?> low = scheduler.submit(0, () -> order.add("low"), 1, TimeUnit.SECONDS);
+        Future<?> high = scheduler.submit(5, () -> order.add("high"), 1, TimeUnit.SECONDS);
+        release.countDown();
+        low.get(5, TimeUnit.SECONDS);
+        high.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of("high", "low"), order);
+    }
+
+    @Test
+    void submit_AgesWaitingWorkAheadOfNewerHigherPriorityWork() throws Exception {
+        // Arrange
+        ProcessingScheduler scheduler = scheduler(10, Duration.ofMillis(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+        scheduler.submit(0, blockUntil(started, release), 1, TimeUnit.SECONDS);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Future<?> old = scheduler.submit(0, () -> order.add("old"), 1, TimeUnit.SECONDS);
+        Thread.sleep(50);
+        Future<?> recent = scheduler.submit(5, () -> order.add("recent"), 1, TimeUnit.SECONDS);
+        release.countDown();
+        old.get(5, TimeUnit.SECONDS);
+        recent.get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(List.of("old", "recent"), order);
+    }
+
+    @Test
+    void submit_ReturnsNull_WhenQueueStaysFull() throws Exception {
+        // Arrange
+        ProcessingScheduler scheduler = scheduler(1, Duration.ofSeconds(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit(0, blockUntil(started, release), 1, TimeUnit.SECONDS);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        scheduler.submit(0, () -> { }, 1, TimeUnit.SECONDS);
+
+        // Act
+        Future<?> rejected = scheduler.submit(0, () -> { }, 10, TimeUnit.MILLISECONDS);
+
+        // Assert
+        assertNull(rejected);
+        assertEquals(1, scheduler.queued());
+        release.countDown();
+    }
+
+    @Test
+    void purge_FreesCapacityOfCancelledWork() throws Exception {
+        // Arrange
+        ProcessingScheduler scheduler = scheduler(1, Duration.ofSeconds(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit(0, blockUntil(started, release), 1, TimeUnit.SECONDS);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<?> queued = scheduler.submit(0, () -> { }, 1, TimeUnit.SECONDS);
+
+        // Act
+        queued.cancel(false);
+        scheduler.purge();
+
+        // Assert
+        assertEquals(0, scheduler.queued());
+        assertNotNull(scheduler.submit(0, () -> { }, 10, TimeUnit.MILLISECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void submit_RunsRejectionCallback_WhenExecutorIsShutDown() throws Exception {
+        // Arrange
+        ProcessingScheduler scheduler = scheduler(10, Duration.ofSeconds(1));
+        executor.shutdown();
+        CountDownLatch rejected = new CountDownLatch(1);
+
+        // Act
+        Future<?> task = scheduler.submit(0, () -> fail("should not run"), rejected::countDown, 1, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(0, rejected.getCount());
+        assertTrue(task.isCancelled());
+        assertEquals(0, scheduler.queued());
+    }
+
+}
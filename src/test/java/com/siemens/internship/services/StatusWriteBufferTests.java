@@ -0,0 +1,229 @@
+package com.siemens.internship.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.siemens.internship.events.ItemChangeType;
+import com.siemens.internship.events.ItemChangedEvent;
+import com.siemens.internship.exceptions.SourceNotFoundException;
+import com.siemens.internship.models.Item;
+import com.siemens.internship.repositories.IItemRepository;
+
+public class StatusWriteBufferTests {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final IItemRepository itemRepository = mock(IItemRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+
+    private static Item item(long id, long version) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Item " + id);
+        item.setStatus("NEW");
+        item.setVersion(version);
+        return item;
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(this.itemRepository.findById(1L)).thenReturn(Optional.of(item(1, 4)));
+        when(this.itemRepository.findById(2L)).thenReturn(Optional.of(item(2, 0)));
+    }
+
+    private StatusWriteBuffer buffer(int maxPending) {
+        return new StatusWriteBuffer(this.jdbcTemplate, this.itemRepository, this.eventPublisher, true, maxPending);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> flushedRows() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(this.jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        return rows.getValue();
+    }
+
+    @Test
+    void updateStatus_CoalescesUpdatesOfSameItem() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+        when(this.jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1 });
+
+        // Act
+        buffer.updateStatus(1L, "QUEUED", ItemChangeType.UPDATED);
+        buffer.updateStatus(1L, "RUNNING", ItemChangeType.UPDATED);
+        Item updated = buffer.updateStatus(1L, "DONE", ItemChangeType.PROCESSED);
+        int written = buffer.flush();
+
+        // Assert
+        assertEquals(7L, updated.getVersion());
+        assertEquals(1, written);
+        List<Object[]> rows = flushedRows();
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[] { "DONE", 7L, 1L, 4L }, rows.get(0));
+        assertEquals(0, buffer.size());
+        verify(this.eventPublisher).publishEvent(new ItemChangedEvent(ItemChangeType.PROCESSED, 1L, updated));
+    }
+
+    @Test
+    void updateStatus_UsesGivenItem_WithoutReadingIt() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+
+        // Act
+        Item updated = buffer.updateStatus(item(1, 4), "DONE", ItemChangeType.PROCESSED);
+
+        // Assert
+        assertEquals("DONE", updated.getStatus());
+        assertEquals(5L, updated.getVersion());
+        verify(this.itemRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void updateStatus_Throws_WhenItemDoesNotExist() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+        when(this.itemRepository.findById(3L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(SourceNotFoundException.class, () -> buffer.updateStatus(3L, "DONE", ItemChangeType.UPDATED));
+        assertEquals(0, buffer.size());
+        verifyNoInteractions(this.eventPublisher);
+    }
+
+    @Test
+    void overlay_ReturnsBufferedStatusUntilFlushed() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+        Item stored = item(1, 4);
+        buffer.updateStatus(1L, "PROCESSING", ItemChangeType.UPDATED);
+
+        // Act
+        Item overlaid = buffer.overlay(stored);
+
+        // Assert
+        assertEquals("PROCESSING", overlaid.getStatus());
+        assertEquals(5L, overlaid.getVersion());
+        assertEquals("NEW", stored.getStatus());
+        Item other = item(2, 0);
+        assertSame(other, buffer.overlay(other));
+    }
+
+    @Test
+    void updateStatus_FlushesWhenBufferIsFull() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(2);
+        when(this.jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1, 1 });
+
+        // Act
+        buffer.updateStatus(1L, "DONE", ItemChangeType.UPDATED);
+        buffer.updateStatus(2L, "DONE", ItemChangeType.UPDATED);
+
+        // Assert
+        assertEquals(2, flushedRows().size());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void flush_KeepsChangesBufferedWhileWriting() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+        buffer.updateStatus(1L, "RUNNING", ItemChangeType.UPDATED);
+        when(this.jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            buffer.updateStatus(1L, "DONE", ItemChangeType.UPDATED);
+            return new int[] { 1 };
+        });
+
+        // Act
+        buffer.flush();
+
+        // Assert
+        assertEquals(1, buffer.size());
+        Item overlaid = buffer.overlay(item(1, 5));
+        assertEquals("DONE", overlaid.getStatus());
+        assertEquals(6L, overlaid.getVersion());
+    }
+
+    @Test
+    void flush_MergesStatusAndPublishesStoredItem_WhenItemChangedUnderneath() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+        Item published = buffer.updateStatus(1L, "DONE", ItemChangeType.UPDATED);
+        when(this.jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 0 });
+        when(this.jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(1L))).thenReturn(List.of(5L));
+        when(this.jdbcTemplate.update(anyString(), eq("DONE"), eq(6L), eq(1L), eq(5L))).thenReturn(1);
+        Item stored = new Item(1L, "Item 1", null, "DONE", null, 0, 6L);
+        when(this.itemRepository.findById(1L)).thenReturn(Optional.of(stored));
+
+        // Act
+        int written = buffer.flush();
+
+        // Assert
+        assertEquals(5L, published.getVersion());
+        assertEquals(1, written);
+        assertEquals(0, buffer.size());
+        verify(this.eventPublisher).publishEvent(new ItemChangedEvent(ItemChangeType.UPDATED, 1L, stored));
+    }
+
+    @Test
+    void flush_DropsStatus_WhenItemWasDeleted() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+        buffer.updateStatus(1L, "DONE", ItemChangeType.UPDATED);
+        when(this.jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 0 });
+        when(this.jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(1L))).thenReturn(List.of());
+
+        // Act
+        int written = buffer.flush();
+
+        // Assert
+        assertEquals(0, written);
+        assertEquals(0, buffer.size());
+        verify(this.jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void writeThrough_WritesBufferedStatusBeforeTheItem() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+        buffer.updateStatus(1L, "DONE", ItemChangeType.UPDATED);
+        when(this.jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[] { 1 });
+        Runnable save = mock(Runnable.class);
+
+        // Act
+        buffer.writeThrough(1L, () -> {
+            save.run();
+            return null;
+        });
+
+        // Assert
+        InOrder inOrder = inOrder(this.jdbcTemplate, save);
+        inOrder.verify(this.jdbcTemplate).batchUpdate(anyString(), anyList());
+        inOrder.verify(save).run();
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void discard_RemovesBufferedStatus() {
+        // Arrange
+        StatusWriteBuffer buffer = buffer(100);
+        buffer.updateStatus(1L, "DONE", ItemChangeType.UPDATED);
+
+        // Act
+        buffer.discard(1L);
+        buffer.flush();
+
+        // Assert
+        verifyNoInteractions(this.jdbcTemplate);
+    }
+
+}
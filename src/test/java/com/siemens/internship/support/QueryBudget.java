@@ -0,0 +1,58 @@
+package com.siemens.internship.support;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.mockito.Mockito;
+
+import com.siemens.internship.diagnostics.SqlStatementCounter;
+
+/**
+ * Assertions that put an upper bound on the round trips an operation makes.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    /**
+     * Runs the operation and fails if Hibernate prepared more than {@code max} SQL statements on this thread.
+     */
+    public static <T> T assertStatementsAtMost(int max, Supplier<T> operation) {
+        SqlStatementCounter.reset();
+        T result = operation.get();
+        long statements = SqlStatementCounter.current();
+        assertTrue(statements <= max, "Expected at most " + max + " SQL statements but got " + statements);
+        return result;
+    }
+
+    public static void assertStatementsAtMost(int max, Runnable operation) {
+        assertStatementsAtMost(max, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Fails if more than {@code max} calls were made on the mock, stubbing excluded.
+     * With a mocked repository or service every call stands for at least one round trip.
+     */
+    public static void assertCallsAtMost(Object mock, int max) {
+        int calls = Mockito.mockingDetails(mock).getInvocations().size();
+        assertTrue(calls <= max, "Expected at most " + max + " calls on the mock but got " + calls);
+    }
+
+    /**
+     * Like {@link #assertCallsAtMost(Object, int)}, counting only calls to the named methods.
+     */
+    public static void assertCallsAtMost(Object mock, int max, String... methods) {
+        Set<String> names = Set.of(methods);
+        long calls = Mockito.mockingDetails(mock).getInvocations().stream()
+                .filter(invocation -> names.contains(invocation.getMethod().getName()))
+                .count();
+        assertTrue(calls <= max, "Expected at most " + max + " calls to " + names + " but got " + calls);
+    }
+
+}